@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+URL_PATH=${URL_PATH:-/actuator/health}
+WARMUP_REQUESTS=${WARMUP_REQUESTS:-500}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+JVM_JAR=target/card-service-0.0.1-SNAPSHOT.jar
+NATIVE_BINARY=target/card-service
+REPORT=${REPORT:-target/native-report.md}
+
+cd "$(dirname "$0")/.."
+
+: "${SPRING_DATASOURCE_URL:?point SPRING_DATASOURCE_URL at a migrated database}"
+: "${JWT_SECRET_BASE64:?}" "${CARD_ENCRYPTION_KEY_BASE64:?}"
+export SPRING_LIQUIBASE_ENABLED=false SERVER_PORT=$PORT
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+  mvn -B -q -Pnative clean package native:compile -DskipTests
+fi
+
+rss_kb() {
+  awk '/VmRSS/ { print $2 }' "/proc/$1/status"
+}
+
+measure() {
+  local started now pid ready_rss loaded_rss
+  started=$(date +%s%N)
+  "$@" >/dev/null 2>&1 &
+  pid=$!
+  until curl -fsS -o /dev/null "http://localhost:$PORT$URL_PATH" 2>/dev/null; do
+    now=$(date +%s%N)
+    if [ $(((now - started) / 1000000000)) -ge "$TIMEOUT_SECONDS" ] || ! kill -0 "$pid" 2>/dev/null; then
+      kill "$pid" 2>/dev/null || true
+      echo "No successful response from '$*' within ${TIMEOUT_SECONDS}s" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  now=$(date +%s%N)
+  ready_rss=$(rss_kb "$pid")
+  for _ in $(seq 1 "$WARMUP_REQUESTS"); do
+    curl -fsS -o /dev/null "http://localhost:$PORT$URL_PATH"
+  done
+  loaded_rss=$(rss_kb "$pid")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$(((now - started) / 1000000)) $((ready_rss / 1024)) $((loaded_rss / 1024))"
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+summarize() {
+  local label=$1 file=$2
+  printf '| %s | %s | %s | %s |\n' "$label" \
+    "$(awk '{ print $1 }' "$file" | median)" \
+    "$(awk '{ print $2 }' "$file" | median)" \
+    "$(awk '{ print $3 }' "$file" | median)"
+}
+
+jvm=$(mktemp)
+native=$(mktemp)
+trap 'rm -f "$jvm" "$native"' EXIT
+for run in $(seq 1 "$RUNS"); do
+  measure java -jar "$JVM_JAR" >>"$jvm"
+  measure "$NATIVE_BINARY" >>"$native"
+  echo "run $run: jvm=[$(tail -1 "$jvm")] native=[$(tail -1 "$native")] (ms, ready MB, loaded MB)"
+done
+
+mkdir -p "$(dirname "$REPORT")"
+{
+  echo "# JVM vs native ($(date -u +%Y-%m-%dT%H:%M:%SZ), median of $RUNS)"
+  echo
+  echo "| build | time to first successful GET $URL_PATH, ms | RSS when ready, MB | RSS after $WARMUP_REQUESTS requests, MB |"
+  echo "|---|---|---|---|"
+  summarize "JVM ($(java -version 2>&1 | head -1))" "$jvm"
+  summarize "native ($(du -m "$NATIVE_BINARY" | cut -f1) MB binary)" "$native"
+} >"$REPORT"
+cat "$REPORT"
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+URL_PATH=${URL_PATH:-/actuator/health}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+DOCKER_RUN_ARGS=${DOCKER_RUN_ARGS:---cpus=1 --memory=768m}
+BASELINE_IMAGE=${BASELINE_IMAGE:-card-service:jar}
+CDS_IMAGE=${CDS_IMAGE:-card-service:cds}
+NETWORK=card-service-startup-benchmark
+DB=card-service-startup-benchmark-db
+
+cd "$(dirname "$0")/.."
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+  mvn -B -q clean package -DskipTests
+  docker build -q -t "$BASELINE_IMAGE" -f Dockerfile . >/dev/null
+  mvn -B -q -Pcds clean package -DskipTests
+  docker build -q -t "$CDS_IMAGE" -f Dockerfile.cds . >/dev/null
+fi
+
+cleanup() {
+  docker rm -f "$DB" >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+docker network create "$NETWORK" >/dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+  -e POSTGRES_DB=db -e POSTGRES_USER=user -e POSTGRES_PASSWORD=pass postgres:15-alpine >/dev/null
+until docker exec "$DB" pg_isready -U user -d db >/dev/null 2>&1; do sleep 0.5; done
+
+APP_ENV=(
+  -e SPRING_DATASOURCE_URL=jdbc:postgresql://$DB:5432/db
+  -e SPRING_DATASOURCE_USERNAME=user
+  -e SPRING_DATASOURCE_PASSWORD=pass
+  -e SPRING_LIQUIBASE_PARAMETERS_ADMIN_PASSWORD_BCRYPT={noop}disabled
+  -e JWT_SECRET_BASE64="$(head -c 32 /dev/urandom | base64)"
+  -e CARD_ENCRYPTION_KEY_BASE64="$(head -c 16 /dev/urandom | base64)"
+  -e SPRING_PROFILES_ACTIVE=prod
+)
+
+docker run --rm --network "$NETWORK" "${APP_ENV[@]}" "$CDS_IMAGE" migrate >/dev/null
+
+time_to_first_request() {
+  local image=$1 started now container
+  started=$(date +%s%N)
+  # shellcheck disable=SC2086
+  container=$(docker run -d --network "$NETWORK" -p "$PORT:8080" $DOCKER_RUN_ARGS "${APP_ENV[@]}" \
+    -e SPRING_LIQUIBASE_ENABLED=false "$image")
+  until curl -fsS -o /dev/null "http://localhost:$PORT$URL_PATH" 2>/dev/null; do
+    now=$(date +%s%N)
+    if [ $(((now - started) / 1000000000)) -ge "$TIMEOUT_SECONDS" ]; then
+      docker logs --tail 50 "$container" >&2
+      docker rm -f "$container" >/dev/null
+      echo "No successful response from $image within ${TIMEOUT_SECONDS}s" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  now=$(date +%s%N)
+  docker rm -f "$container" >/dev/null
+  echo $(((now - started) / 1000000))
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+baseline=()
+cds=()
+for run in $(seq 1 "$RUNS"); do
+  baseline+=("$(time_to_first_request "$BASELINE_IMAGE")")
+  cds+=("$(time_to_first_request "$CDS_IMAGE")")
+  echo "run $run: $BASELINE_IMAGE=${baseline[-1]}ms $CDS_IMAGE=${cds[-1]}ms"
+done
+
+baseline_median=$(printf '%s\n' "${baseline[@]}" | median)
+cds_median=$(printf '%s\n' "${cds[@]}" | median)
+echo "time to first successful GET $URL_PATH (median of $RUNS, $DOCKER_RUN_ARGS):"
+echo "  $BASELINE_IMAGE: ${baseline_median}ms"
+echo "  $CDS_IMAGE: ${cds_median}ms"
+awk -v b="$baseline_median" -v c="$cds_median" 'BEGIN { printf "  speedup: %.2fx\n", b / c }'
@@ -0,0 +1,57 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.card.Card;
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.entity.user.User;
+import com.example.bankcards.security.JwtServiceImpl;
+import com.example.bankcards.util.CardEncryptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = Base64.getEncoder()
+            .encodeToString("benchmark-secret-benchmark-secret-0123".getBytes(StandardCharsets.UTF_8));
+    static final byte[] CARD_KEY = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private BenchmarkFixtures() {
+    }
+
+    static CardEncryptionService encryptionService() {
+        return new CardEncryptionService(new SecretKeySpec(CARD_KEY, "AES"), new SimpleMeterRegistry());
+    }
+
+    static JwtServiceImpl jwtService() {
+        return new JwtServiceImpl(JWT_SECRET, 3_600_000L, Clock.systemUTC(), new SimpleMeterRegistry());
+    }
+
+    static List<Card> cards(CardEncryptionService encryptionService, int count) {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername("benchmark-user");
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Card card = new Card();
+            card.setId((long) i + 1);
+            card.setEncryptedNumber(encryptionService.encrypt(String.format("4000%012d", i)));
+            card.setOwner(owner);
+            card.setExpiryDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(new BigDecimal("1000.00").add(BigDecimal.valueOf(i)));
+            card.setCreatedAt(Instant.EPOCH);
+            card.setUpdatedAt(Instant.EPOCH);
+            card.setVersion(0L);
+            cards.add(card);
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CardEncryptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardEncryptionBenchmark {
+
+    private static final String CARD_NUMBER = "4000123412341234";
+
+    private CardEncryptionService encryptionService;
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        encryptionService = BenchmarkFixtures.encryptionService();
+        encrypted = encryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionService.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String mask() {
+        return encryptionService.mask(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decryptAndMask() {
+        return encryptionService.mask(encryptionService.decrypt(encrypted));
+    }
+}
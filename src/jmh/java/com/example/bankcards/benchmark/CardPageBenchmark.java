@@ -0,0 +1,66 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.dto.mapper.CardMapper;
+import com.example.bankcards.dto.mapper.CardMapperImpl;
+import com.example.bankcards.entity.card.Card;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardPageBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final CardMapper cardMapper = new CardMapperImpl();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<Card> cards;
+    private Page<CardDto> dtos;
+
+    @Setup
+    public void setUp() {
+        List<Card> content = BenchmarkFixtures.cards(BenchmarkFixtures.encryptionService(), pageSize);
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        cards = new PageImpl<>(content, pageable, 10_000);
+        dtos = cards.map(cardMapper::toDto);
+    }
+
+    @Benchmark
+    public Page<CardDto> mapPage() {
+        return cards.map(cardMapper::toDto);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(cards.map(cardMapper::toDto));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.cache.PrincipalCache;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.JwtServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    public enum Header {
+        VALID, TAMPERED, MISSING
+    }
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"VALID", "TAMPERED", "MISSING"})
+    private Header header;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtServiceImpl jwtService = BenchmarkFixtures.jwtService();
+        String token = jwtService.generateToken(1L, "benchmark-user", List.of("ROLE_USER"));
+        AuthenticatedUser user = new AuthenticatedUser(1L, "benchmark-user", "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        PrincipalCache principalCache = new PrincipalCache(username -> user, 1_000, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtService, principalCache);
+        authorization = switch (header) {
+            case VALID -> "Bearer " + token;
+            case TAMPERED -> "Bearer " + token.substring(0, token.length() - 2) + "xx";
+            case MISSING -> null;
+        };
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards/user");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NOOP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.util.CardEncryptionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+class DataSeeder {
+
+    static final String USERNAME_PREFIX = "load-user-";
+    static final String PASSWORD = "LoadTest-Passw0rd";
+    static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CardEncryptionService encryptionService;
+
+    List<SeededUser> seed(int users, int cardsPerUser) {
+        long started = System.nanoTime();
+        String password = passwordEncoder.encode(PASSWORD);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{USERNAME_PREFIX + i, password, true, now});
+        }
+        batch("INSERT INTO users (username, password, enabled, created_at) VALUES (?, ?, ?, ?)", userRows);
+
+        Map<String, Long> userIds = jdbcTemplate.query(
+                        "SELECT id, username FROM users WHERE username LIKE ?",
+                        (rs, n) -> Map.entry(rs.getString("username"), rs.getLong("id")),
+                        USERNAME_PREFIX + "%")
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        Long roleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Long.class);
+
+        batch("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userIds.values().stream()
+                .map(id -> new Object[]{id, roleId})
+                .toList());
+
+        Date expiry = Date.valueOf(LocalDate.now().plusYears(3));
+        List<Object[]> cardRows = new ArrayList<>(users * cardsPerUser);
+        long number = 0;
+        for (Long ownerId : userIds.values()) {
+            for (int c = 0; c < cardsPerUser; c++) {
+                String cardNumber = String.format("4000%012d", number++);
+                cardRows.add(new Object[]{encryptionService.encrypt(cardNumber), ownerId, expiry, "ACTIVE",
+                        INITIAL_BALANCE, 0L, now, now});
+            }
+        }
+        batch("INSERT INTO cards (encrypted_number, owner_id, expiry_date, status, balance, version, created_at, "
+                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", cardRows);
+
+        Map<Long, List<Long>> cardsByOwner = jdbcTemplate.query(
+                        "SELECT c.id, c.owner_id FROM cards c JOIN users u ON u.id = c.owner_id "
+                                + "WHERE u.username LIKE ? ORDER BY c.id",
+                        (rs, n) -> new long[]{rs.getLong("owner_id"), rs.getLong("id")},
+                        USERNAME_PREFIX + "%")
+                .stream()
+                .collect(Collectors.groupingBy(row -> row[0], Collectors.mapping(row -> row[1], Collectors.toList())));
+
+        List<SeededUser> seeded = userIds.entrySet().stream()
+                .map(e -> new SeededUser(e.getKey(), cardsByOwner.getOrDefault(e.getValue(), List.of())))
+                .toList();
+        log.info("Seeded {} users and {} cards in {} ms",
+                users, cardRows.size(), (System.nanoTime() - started) / 1_000_000);
+        return seeded;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    record SeededUser(String username, List<Long> cardIds) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.loadtest.DataSeeder.SeededUser;
+import com.example.bankcards.util.VirtualThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+class LoadDriver {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int LOGIN_ATTEMPTS = 10;
+
+    private final String baseUrl;
+    private final List<SeededUser> users;
+    private final LoadTestOptions options;
+    private final Operation[] weightedOperations;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+
+    private volatile boolean measuring;
+
+    LoadDriver(String baseUrl, List<SeededUser> users, LoadTestOptions options) {
+        this.baseUrl = baseUrl;
+        this.users = users.stream().filter(u -> u.cardIds().size() >= 2).toList();
+        this.options = options;
+        this.weightedOperations = weighted(options.mix());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor("load-http-", Math.max(2, options.concurrency() / 4)))
+                .build();
+        for (Operation operation : Operation.values()) {
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+        if (this.users.isEmpty()) {
+            throw new IllegalArgumentException("Load test needs users with at least two cards");
+        }
+    }
+
+    LoadReport run() throws Exception {
+        ExecutorService workers = executor("load-client-", options.concurrency());
+        try {
+            login(workers);
+            log.info("Warming up for {} with {} clients", options.warmup(), options.concurrency());
+            drive(workers, options.warmup());
+            measuring = true;
+            log.info("Measuring for {}", options.duration());
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+            threads.resetPeakThreadCount();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long started = System.nanoTime();
+            List<Map<Operation, Histogram>> perWorker = drive(workers, options.duration());
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            return LoadReport.of(options, merge(perWorker), statuses, seconds,
+                    threads.getPeakThreadCount(), peakHeap);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void login(ExecutorService workers) throws Exception {
+        List<Future<?>> logins = new ArrayList<>();
+        for (SeededUser user : users) {
+            logins.add(workers.submit(() -> loginWithRetry(user)));
+        }
+        for (Future<?> login : logins) {
+            login.get();
+        }
+        log.info("Logged in {} users", tokens.size());
+    }
+
+    private Void loginWithRetry(SeededUser user) throws InterruptedException {
+        for (int attempt = 1; attempt < LOGIN_ATTEMPTS; attempt++) {
+            if (execute(Operation.LOGIN, user) != 503) {
+                return null;
+            }
+            Thread.sleep(ThreadLocalRandom.current().nextLong(100, 500) * attempt);
+        }
+        execute(Operation.LOGIN, user);
+        return null;
+    }
+
+    private List<Map<Operation, Histogram>> drive(ExecutorService workers, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Map<Operation, Histogram>>> futures = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            futures.add(workers.submit(() -> client(deadline)));
+        }
+        List<Map<Operation, Histogram>> results = new ArrayList<>();
+        for (Future<Map<Operation, Histogram>> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private Map<Operation, Histogram> client(long deadline) {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            SeededUser user = users.get(random.nextInt(users.size()));
+            long started = System.nanoTime();
+            int status = execute(operation, user);
+            long elapsed = System.nanoTime() - started;
+            if (measuring) {
+                histograms.computeIfAbsent(operation, op -> new Histogram(MAX_LATENCY_NANOS, 3))
+                        .recordValue(Math.min(elapsed, MAX_LATENCY_NANOS));
+                statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+            }
+        }
+        return histograms;
+    }
+
+    private int execute(Operation operation, SeededUser user) {
+        try {
+            return switch (operation) {
+                case LOGIN -> login(user);
+                case BALANCE -> get(user, "/api/cards/" + randomCard(user) + "/balance");
+                case LIST -> get(user, "/api/cards/user?page=0&size=20");
+                case TRANSFER -> transfer(user);
+            };
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private int login(SeededUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(json("/api/auth/login", null, Map.of(
+                "username", user.username(),
+                "password", DataSeeder.PASSWORD)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+            tokens.put(user.username(), objectMapper.readTree(response.body()).get("token").asText());
+        }
+        return response.statusCode();
+    }
+
+    private int get(SeededUser user, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + tokens.get(user.username()))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int transfer(SeededUser user) throws IOException, InterruptedException {
+        List<Long> cards = user.cardIds();
+        int from = ThreadLocalRandom.current().nextInt(cards.size());
+        int to = (from + 1 + ThreadLocalRandom.current().nextInt(cards.size() - 1)) % cards.size();
+        return httpClient.send(json("/api/cards/transfer", tokens.get(user.username()), Map.of(
+                "fromCardId", cards.get(from),
+                "toCardId", cards.get(to),
+                "amount", "0.01",
+                "description", "load test")), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest json(String path, String token, Map<String, Object> body) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExecutorService executor(String namePrefix, int platformThreads) {
+        return VirtualThreads.isSupported()
+                ? VirtualThreads.newThreadPerTaskExecutor(namePrefix)
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    private static Long randomCard(SeededUser user) {
+        return user.cardIds().get(ThreadLocalRandom.current().nextInt(user.cardIds().size()));
+    }
+
+    private static Map<Operation, Histogram> merge(List<Map<Operation, Histogram>> perWorker) {
+        Map<Operation, Histogram> merged = new EnumMap<>(Operation.class);
+        for (Map<Operation, Histogram> histograms : perWorker) {
+            histograms.forEach((operation, histogram) -> merged
+                    .computeIfAbsent(operation, op -> new Histogram(MAX_LATENCY_NANOS, 3))
+                    .add(histogram));
+        }
+        return merged;
+    }
+
+    private static Operation[] weighted(Map<Operation, Integer> mix) {
+        List<Operation> operations = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        return operations.toArray(new Operation[0]);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.bankcards.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+record LoadReport(Instant generatedAt,
+                  int users,
+                  int cardsPerUser,
+                  int concurrency,
+                  double durationSeconds,
+                  int peakThreads,
+                  double peakHeapMb,
+                  Map<String, EndpointReport> endpoints,
+                  List<Regression> regressions) {
+
+    static LoadReport of(LoadTestOptions options, Map<Operation, Histogram> histograms,
+                         Map<Operation, Map<Integer, LongAdder>> statuses, double seconds,
+                         int peakThreads, long peakHeapBytes) {
+        Map<String, EndpointReport> endpoints = new TreeMap<>();
+        histograms.forEach((operation, histogram) -> {
+            Map<String, Long> byStatus = new TreeMap<>();
+            long errors = 0;
+            for (Map.Entry<Integer, LongAdder> status : statuses.get(operation).entrySet()) {
+                long count = status.getValue().sum();
+                byStatus.put(String.valueOf(status.getKey()), count);
+                if (status.getKey() < 200 || status.getKey() >= 300) {
+                    errors += count;
+                }
+            }
+            endpoints.put(operation.name().toLowerCase(), new EndpointReport(
+                    histogram.getTotalCount(),
+                    errors,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    byStatus));
+        });
+        return new LoadReport(Instant.now(), options.users(), options.cardsPerUser(), options.concurrency(),
+                seconds, peakThreads, Math.round(peakHeapBytes * 10.0 / (1024 * 1024)) / 10.0, endpoints, List.of());
+    }
+
+    LoadReport compareTo(LoadReport baseline, double tolerance) {
+        List<Regression> regressions = new ArrayList<>();
+        endpoints.forEach((endpoint, current) -> {
+            EndpointReport base = baseline.endpoints().get(endpoint);
+            if (base == null) {
+                return;
+            }
+            if (current.p99Ms() > base.p99Ms() * (1 + tolerance)) {
+                regressions.add(new Regression(endpoint, "p99Ms", base.p99Ms(), current.p99Ms()));
+            }
+            if (current.p999Ms() > base.p999Ms() * (1 + tolerance)) {
+                regressions.add(new Regression(endpoint, "p999Ms", base.p999Ms(), current.p999Ms()));
+            }
+            if (current.throughput() < base.throughput() * (1 - tolerance)) {
+                regressions.add(new Regression(endpoint, "throughput", base.throughput(), current.throughput()));
+            }
+            if (current.errorRate() > base.errorRate() + tolerance / 10) {
+                regressions.add(new Regression(endpoint, "errorRate", base.errorRate(), current.errorRate()));
+            }
+        });
+        return new LoadReport(generatedAt, users, cardsPerUser, concurrency, durationSeconds, peakThreads,
+                peakHeapMb, endpoints, List.copyOf(regressions));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    record EndpointReport(long count,
+                          long errors,
+                          double throughput,
+                          double p50Ms,
+                          double p90Ms,
+                          double p99Ms,
+                          double p999Ms,
+                          double maxMs,
+                          Map<String, Long> statuses) {
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    record Regression(String endpoint, String metric, double baseline, double current) {
+    }
+}
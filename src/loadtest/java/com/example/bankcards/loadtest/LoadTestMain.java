@@ -0,0 +1,103 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.BankApplication;
+import com.example.bankcards.loadtest.DataSeeder.SeededUser;
+import com.example.bankcards.util.CardEncryptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToEnable(SerializationFeature.INDENT_OUTPUT)
+                .build();
+
+        LoadReport report;
+        try (ServletWebServerApplicationContext context = start(options)) {
+            DataSeeder seeder = new DataSeeder(context.getBean(JdbcTemplate.class),
+                    context.getBean(PasswordEncoder.class), context.getBean(CardEncryptionService.class));
+            List<SeededUser> users = seeder.seed(options.users(), options.cardsPerUser());
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+            report = new LoadDriver(baseUrl, users, options).run();
+        }
+
+        if (options.baseline() != null) {
+            report = report.compareTo(objectMapper.readValue(options.baseline().toFile(), LoadReport.class),
+                    options.tolerance());
+        }
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        objectMapper.writeValue(options.report().toFile(), report);
+
+        report.endpoints().forEach((endpoint, stats) -> log.info(
+                "{}: count={} errors={} throughput={}/s p50={}ms p99={}ms p999={}ms",
+                endpoint, stats.count(), stats.errors(), Math.round(stats.throughput()),
+                stats.p50Ms(), stats.p99Ms(), stats.p999Ms()));
+        log.info("Peak threads={} peak heap={}MB", report.peakThreads(), report.peakHeapMb());
+        report.regressions().forEach(r -> log.warn("Regression in {} {}: baseline={} current={}",
+                r.endpoint(), r.metric(), r.baseline(), r.current()));
+        log.info("Report written to {}", options.report().toAbsolutePath());
+
+        if (options.failOnRegression() && !report.regressions().isEmpty()) {
+            System.exit(2);
+        }
+        System.exit(0);
+    }
+
+    private static ServletWebServerApplicationContext start(LoadTestOptions options) {
+        Map<String, Object> properties = new HashMap<>();
+        if (options.jdbcUrl() == null) {
+            properties.put("spring.datasource.url",
+                    "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+        } else {
+            properties.put("spring.datasource.url", options.jdbcUrl());
+        }
+        properties.put("spring.datasource.hikari.maximum-pool-size", options.poolSize());
+        properties.put("spring.liquibase.parameters.admin.password.bcrypt", "{noop}disabled");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("jwt.secret.base64", randomKey(32));
+        properties.put("card.encryption.key.base64", randomKey(16));
+        properties.put("server.port", 0);
+        properties.put("server.tomcat.threads.max", options.tomcatThreads());
+        properties.put("spring.threads.virtual.enabled", options.virtualThreads());
+        properties.put("concurrency.limit.enabled", options.concurrencyLimit());
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example", "WARN");
+        properties.put("logging.level.com.example.bankcards.loadtest", "INFO");
+        properties.put("logging.level.org.springframework.web", "WARN");
+        properties.put("logging.level.org.apache.catalina.loader", "ERROR");
+
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return (ServletWebServerApplicationContext) new SpringApplicationBuilder(BankApplication.class)
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("testConfigurationExcludeFilter", new TestConfigurationExcludeFilter()))
+                .run(args);
+    }
+
+    private static String randomKey(int bytes) {
+        byte[] key = new byte[bytes];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+record LoadTestOptions(int users,
+                       int cardsPerUser,
+                       int concurrency,
+                       Duration warmup,
+                       Duration duration,
+                       Map<Operation, Integer> mix,
+                       String jdbcUrl,
+                       Path report,
+                       Path baseline,
+                       double tolerance,
+                       boolean failOnRegression,
+                       boolean virtualThreads,
+                       int tomcatThreads,
+                       int poolSize,
+                       boolean concurrencyLimit) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int concurrency = Integer.parseInt(values.getOrDefault("concurrency", "32"));
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("cards-per-user", "3")),
+                concurrency,
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                parseMix(values.getOrDefault("mix", "login:5,balance:40,list:40,transfer:15")),
+                values.get("jdbc-url"),
+                Path.of(values.getOrDefault("report", "target/loadtest/report.json")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                Double.parseDouble(values.getOrDefault("tolerance", "0.10")),
+                Boolean.parseBoolean(values.getOrDefault("fail-on-regression", "false")),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Integer.parseInt(values.getOrDefault("tomcat-threads", String.valueOf(Math.max(200, concurrency)))),
+                Integer.parseInt(values.getOrDefault("pool-size", String.valueOf(Math.min(concurrency, 32)))),
+                Boolean.parseBoolean(values.getOrDefault("concurrency-limit", "false")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.bankcards.loadtest;
+
+enum Operation {
+    LOGIN, BALANCE, LIST, TRANSFER
+}
@@ -1,11 +1,23 @@
 package com.example.bankcards;
 
+import com.example.bankcards.migration.MigrationApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+
+import java.util.Arrays;
 
 @SpringBootApplication
 public class BankApplication {
+
+    private static final int STARTUP_TIMELINE_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(BankApplication.class, args);
+        if (args.length > 0 && MigrationApplication.COMMAND.equals(args[0])) {
+            System.exit(MigrationApplication.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        SpringApplication application = new SpringApplication(BankApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
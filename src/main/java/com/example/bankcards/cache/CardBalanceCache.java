@@ -0,0 +1,120 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.dto.card.CardBalanceDto;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class CardBalanceCache {
+
+    private static final long DELETED_VERSION = Long.MAX_VALUE;
+
+    private final Cache<Key, Entry> cache;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CardBalanceCache(@Value("${card.balance-cache.maximum-size:100000}") long maximumSize,
+                            @Value("${card.balance-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                            MeterRegistry meterRegistry,
+                            Clock clock) {
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.hits = Counter.builder("card.balance.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("card.balance.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("card.balance.cache.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public Optional<CardBalanceDto> get(Long cardId, Long ownerId) {
+        Entry entry = current(cardId, ownerId);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.toDto(cardId));
+    }
+
+    public Optional<Long> getVersion(Long cardId, Long ownerId) {
+        return Optional.ofNullable(current(cardId, ownerId)).map(Entry::version);
+    }
+
+    public void put(Long ownerId, Long version, LocalDate expiryDate, CardBalanceDto balance) {
+        Entry loaded = new Entry(version, balance.getCardNumberMasked(), balance.getBalance(), expiryDate);
+        cache.asMap().compute(new Key(balance.getId(), ownerId),
+                (key, current) -> current != null && current.version() > version ? current : loaded);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardChanged(CardChangedEvent event) {
+        if (event.getType() == CardChangeType.CREATED) {
+            return;
+        }
+        long version = event.getType() == CardChangeType.DELETED ? DELETED_VERSION : event.getVersion();
+        cache.asMap().compute(new Key(event.getCardId(), event.getOwnerId()), (key, current) -> {
+            if (current != null && current.version() >= version) {
+                return current;
+            }
+            if (current == null || current.isTombstone() || version == DELETED_VERSION) {
+                return Entry.tombstone(version);
+            }
+            return new Entry(version, current.maskedNumber(), event.getBalance(), current.expiryDate());
+        });
+        log.debug("Balance cache updated for card={} version={}", event.getCardId(), version);
+    }
+
+    private Entry current(Long cardId, Long ownerId) {
+        Entry entry = cache.getIfPresent(new Key(cardId, ownerId));
+        if (entry == null || entry.isTombstone() || !entry.expiryDate().isAfter(LocalDate.now(clock))) {
+            return null;
+        }
+        return entry;
+    }
+
+    private record Key(Long cardId, Long ownerId) {
+    }
+
+    private record Entry(long version, String maskedNumber, BigDecimal balance, LocalDate expiryDate) {
+
+        static Entry tombstone(long version) {
+            return new Entry(version, null, null, null);
+        }
+
+        boolean isTombstone() {
+            return maskedNumber == null;
+        }
+
+        CardBalanceDto toDto(Long cardId) {
+            return CardBalanceDto.builder()
+                    .id(cardId)
+                    .cardNumberMasked(maskedNumber)
+                    .balance(balance)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.event.UserChangedEvent;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.util.LogRateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private static final LogRateLimiter NOT_FOUND_LOG = LogRateLimiter.perSecond();
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, AuthenticatedUser> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          @Value("${jwt.principal-cache.maximum-size:100000}") long maximumSize,
+                          @Value("${jwt.principal-cache.expire-after-write:1m}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.hits = Counter.builder("jwt.principal.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.principal.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("jwt.principal.cache.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public Optional<AuthenticatedUser> get(String username) {
+        AuthenticatedUser cached = cache.getIfPresent(username);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        long seen = invalidations.get();
+        AuthenticatedUser loaded;
+        try {
+            loaded = principal(userDetailsService.loadUserByUsername(username));
+        } catch (UsernameNotFoundException ex) {
+            NOT_FOUND_LOG.warn(log, "Principal for username={} not found", username);
+            return Optional.empty();
+        }
+        if (invalidations.get() == seen) {
+            cache.put(username, loaded);
+        }
+        return Optional.of(loaded);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(user -> user.getId().equals(event.getUserId()));
+        log.debug("Principal cache evicted user={}", event.getUserId());
+    }
+
+    private static AuthenticatedUser principal(UserDetails details) {
+        AuthenticatedUser user = (AuthenticatedUser) details;
+        return new AuthenticatedUser(user.getId(), user.getUsername(), "", user.isEnabled(), user.getAuthorities());
+    }
+}
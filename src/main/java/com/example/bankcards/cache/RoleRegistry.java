@@ -0,0 +1,143 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.role.Role;
+import com.example.bankcards.exception.RoleNotFoundException;
+import com.example.bankcards.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+    private final Duration refreshOnMissInterval;
+    private final Clock clock;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public RoleRegistry(RoleRepository roleRepository,
+                        @Value("${role.registry.refresh-on-miss-interval:30s}") Duration refreshOnMissInterval,
+                        Clock clock) {
+        this.roleRepository = roleRepository;
+        this.refreshOnMissInterval = refreshOnMissInterval;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshOnMiss(Snapshot seen) {
+        refreshLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != seen || clock.instant().isBefore(current.loadedAt().plus(refreshOnMissInterval))) {
+                return;
+            }
+            load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void load() {
+        List<Role> roles = roleRepository.findAll();
+        snapshot = new Snapshot(
+                roles.stream().collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity())),
+                roles.stream().collect(Collectors.toUnmodifiableMap(Role::getId, Function.identity())),
+                clock.instant());
+        log.info("Role registry loaded {} roles", roles.size());
+    }
+
+    public Role getByName(String name) {
+        Snapshot seen = current();
+        Role role = seen.byName().get(name);
+        if (role == null) {
+            refreshOnMiss(seen);
+            role = current().byName().get(name);
+        }
+        if (role == null) {
+            log.warn("Role={} not found", name);
+            throw new RoleNotFoundException(name);
+        }
+        return role;
+    }
+
+    public Set<Role> getAllByName(Collection<String> names) {
+        Snapshot seen = current();
+        Set<Role> roles = lookup(names, seen.byName());
+        if (roles.size() == names.size()) {
+            return roles;
+        }
+        refreshOnMiss(seen);
+        roles = lookup(names, current().byName());
+        if (roles.size() != names.size()) {
+            Set<String> missing = new TreeSet<>(names);
+            roles.forEach(role -> missing.remove(role.getName()));
+            log.warn("Roles not found={}", String.join(", ", missing));
+            throw new RoleNotFoundException(String.join(", ", missing));
+        }
+        return roles;
+    }
+
+    public Set<Role> getAllById(Collection<Long> ids) {
+        Snapshot seen = current();
+        Set<Role> roles = lookup(ids, seen.byId());
+        if (roles.size() == ids.size()) {
+            return roles;
+        }
+        refreshOnMiss(seen);
+        return lookup(ids, current().byId());
+    }
+
+    private <K> Set<Role> lookup(Collection<K> keys, Map<K, Role> roles) {
+        Set<Role> found = new LinkedHashSet<>();
+        for (K key : keys) {
+            Role role = roles.get(key);
+            if (role != null) {
+                found.add(role);
+            }
+        }
+        return found;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private record Snapshot(Map<String, Role> byName, Map<Long, Role> byId, Instant loadedAt) {
+    }
+}
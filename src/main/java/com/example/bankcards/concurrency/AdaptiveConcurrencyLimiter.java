@@ -0,0 +1,99 @@
+package com.example.bankcards.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private static final long BASELINE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double BASELINE_DRIFT = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private boolean sampled;
+    private double baselineNanos;
+    private long windowStartedNanos;
+    private long windowMinNanos;
+    private boolean backedOff;
+    private long lastBackoffNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || tolerance < 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings: min=" + minLimit
+                    + " max=" + maxLimit + " tolerance=" + tolerance + " backoffRatio=" + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        int current = inFlight.get();
+        while (current < getLimit()) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = inFlight.get();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release(long startedNanos, long finishedNanos, boolean overloaded) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        onSample(startedNanos, finishedNanos, inFlightBefore, overloaded);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long startedNanos, long finishedNanos, int inFlightBefore, boolean overloaded) {
+        long rttNanos = finishedNanos - startedNanos;
+        updateBaseline(rttNanos, finishedNanos);
+        if (overloaded || rttNanos > baselineNanos * tolerance) {
+            if (!backedOff || startedNanos - lastBackoffNanos > 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                backedOff = true;
+                lastBackoffNanos = finishedNanos;
+            }
+        } else if (inFlightBefore * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private void updateBaseline(long rttNanos, long finishedNanos) {
+        if (!sampled) {
+            sampled = true;
+            baselineNanos = rttNanos;
+            windowStartedNanos = finishedNanos;
+            windowMinNanos = rttNanos;
+            return;
+        }
+        baselineNanos = Math.min(baselineNanos, rttNanos);
+        windowMinNanos = Math.min(windowMinNanos, rttNanos);
+        if (finishedNanos - windowStartedNanos >= BASELINE_WINDOW_NANOS) {
+            baselineNanos += (windowMinNanos - baselineNanos) * BASELINE_DRIFT;
+            windowStartedNanos = finishedNanos;
+            windowMinNanos = Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.bankcards.concurrency;
+
+import com.example.bankcards.util.LogRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "concurrency.limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final LogRateLimiter REJECTED_LOG = LogRateLimiter.perSecond();
+
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(Environment environment,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${concurrency.limit.tolerance:2.0}") double tolerance,
+                                  @Value("${concurrency.limit.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${concurrency.limit.retry-after:1s}") Duration retryAfter) {
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "concurrency.limit." + group.getKey() + ".";
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    environment.getProperty(prefix + "initial", Integer.class, group.getInitialLimit()),
+                    environment.getProperty(prefix + "min", Integer.class, group.getMinLimit()),
+                    environment.getProperty(prefix + "max", Integer.class, group.getMaxLimit()),
+                    tolerance, backoffRatio);
+            limiters.put(group, limiter);
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+            FunctionCounter.builder("http.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+        }
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            REJECTED_LOG.warn(log, "Concurrency limit={} reached for group={}, rejected {} {}",
+                    limiter.getLimit(), group.getKey(), request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Service Unavailable\"}");
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } catch (Throwable ex) {
+            limiter.release(started, System.nanoTime(), true);
+            throw ex;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, response, started));
+        } else {
+            limiter.release(started, System.nanoTime(), isOverloaded(response));
+        }
+    }
+
+    AdaptiveConcurrencyLimiter limiter(EndpointGroup group) {
+        return limiters.get(group);
+    }
+
+    private static boolean isOverloaded(HttpServletResponse response) {
+        return response.getStatus() == HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                || response.getStatus() == HttpServletResponse.SC_GATEWAY_TIMEOUT;
+    }
+
+    private record ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, HttpServletResponse response, long started)
+            implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(started, System.nanoTime(), isOverloaded(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
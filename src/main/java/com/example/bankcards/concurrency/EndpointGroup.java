@@ -0,0 +1,37 @@
+package com.example.bankcards.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum EndpointGroup {
+
+    TRANSFERS("transfers", 10, 2, 100),
+    READS("reads", 20, 4, 400),
+    AUTH("auth", 10, 2, 50),
+    ADMIN("admin", 4, 2, 20);
+
+    private final String key;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    public static EndpointGroup of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/admin/") && !path.equals("/api/admin/cards/export")) {
+            return ADMIN;
+        }
+        if ("POST".equals(request.getMethod()) && path.equals("/api/cards/transfer")) {
+            return TRANSFERS;
+        }
+        if ("GET".equals(request.getMethod()) && path.startsWith("/api/cards/") && !path.equals("/api/cards/stream")) {
+            return READS;
+        }
+        return null;
+    }
+}
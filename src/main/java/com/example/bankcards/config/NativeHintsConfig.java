@@ -0,0 +1,83 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.card.CardExportRow;
+import com.example.bankcards.dto.card.CardStreamEvent;
+import com.example.bankcards.dto.card.CardVersionSummary;
+import com.example.bankcards.dto.user.UserCredentialsRow;
+import com.example.bankcards.dto.user.UserListRow;
+import com.example.bankcards.dto.user.UserRoleRow;
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.TransferCompletedEvent;
+import com.example.bankcards.search.UserSearch;
+import com.example.bankcards.service.CardExportService;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.BankRuntimeHints.class)
+@RegisterReflectionForBinding({
+        CardStreamEvent.class,
+        CardChangedEvent.class,
+        TransferCompletedEvent.class,
+        OutboxEvent.class
+})
+public class NativeHintsConfig {
+
+    static class BankRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        private static final List<Class<?>> QUERY_PROJECTIONS = List.of(
+                CardExportRow.class,
+                CardVersionSummary.class,
+                UserCredentialsRow.class,
+                UserListRow.class,
+                UserRoleRow.class);
+
+        private static final List<Class<?>> PROXIED_JDBC_TYPES = List.of(
+                DataSource.class,
+                Connection.class,
+                Statement.class,
+                PreparedStatement.class,
+                CallableStatement.class,
+                ResultSet.class);
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            JJWT_TYPES.forEach(type -> hints.reflection()
+                    .registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+            QUERY_PROJECTIONS.forEach(type -> hints.reflection()
+                    .registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+            PROXIED_JDBC_TYPES.forEach(type -> hints.proxies().registerJdkProxy(ProxyJdbcObject.class, type));
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(CardExportService.class));
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(UserSearch.class));
+            hints.resources().registerPattern("db/migration/*");
+        }
+    }
+}
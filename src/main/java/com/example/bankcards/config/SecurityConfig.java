@@ -1,10 +1,14 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.concurrency.ConcurrencyLimitFilter;
+import com.example.bankcards.monitoring.jfr.ProfiledPasswordEncoder;
 import com.example.bankcards.security.DbUserDetailsService;
 import com.example.bankcards.security.JwtAuthenticationEntryPoint;
 
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -29,6 +33,7 @@ public class SecurityConfig {
     private final DbUserDetailsService service;
     private final JwtAuthenticationFilter authenticationFilter;
     private final JwtAuthenticationEntryPoint authenticationEntryPoint;
+    private final ObjectProvider<ConcurrencyLimitFilter> concurrencyLimitFilter;
 
     @Bean
     public DaoAuthenticationProvider daoAuthenticationProvider() {
@@ -40,7 +45,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new ProfiledPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Bean
@@ -56,6 +61,7 @@ public class SecurityConfig {
                 .exceptionHandling(e -> e.authenticationEntryPoint(authenticationEntryPoint))
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/swagger-ui/**",
@@ -65,10 +71,13 @@ public class SecurityConfig {
                                 "/actuator/info",
                                 "/error"
                         ).permitAll()
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**", "/actuator/jfr/**", "/actuator/startup", "/actuator/prometheus")
+                        .hasRole("ADMIN")
                         .anyRequest().authenticated()
                 );
         httpSecurity.addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        concurrencyLimitFilter.ifAvailable(filter ->
+                httpSecurity.addFilterBefore(filter, JwtAuthenticationFilter.class));
         return httpSecurity.build();
     }
 }
@@ -0,0 +1,61 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.monitoring.SqlStatsCallableInterceptor;
+import com.example.bankcards.monitoring.SqlStatsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConfig {
+
+    static final String PRIMARY_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor sqlStatsDataSourcePostProcessor(
+            ConfigurableListableBeanFactory beanFactory,
+            @Value("${sql.stats.result-sets.enabled:false}") boolean resultSetsEnabled) {
+        SqlStatsListener listener = new SqlStatsListener();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || !isPrimaryDataSource(beanFactory, beanName)) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener);
+                if (resultSetsEnabled) {
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    private static boolean isPrimaryDataSource(ConfigurableListableBeanFactory beanFactory, String beanName) {
+        return PRIMARY_DATA_SOURCE.equals(beanName)
+                || beanFactory.containsBeanDefinition(beanName) && beanFactory.getBeanDefinition(beanName).isPrimary();
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlStatsAsyncSupportConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new SqlStatsCallableInterceptor());
+            }
+        };
+    }
+}
@@ -1,28 +1,59 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.dto.card.CardExportFormat;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
 import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.dto.user.UserKeysetPage;
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.service.CardExportService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
 
-@RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = AdminController.class.getName() + ".exportTimeout";
+
     private final UserService userService;
     private final CardService cardService;
+    private final CardExportService cardExportService;
+    private final CallableProcessingInterceptor exportTimeout;
+
+    public AdminController(UserService userService,
+                           CardService cardService,
+                           @Lazy CardExportService cardExportService,
+                           @Value("${card.export.timeout:2h}") Duration exportTimeout) {
+        this.userService = userService;
+        this.cardService = cardService;
+        this.cardExportService = cardExportService;
+        this.exportTimeout = timeoutInterceptor(exportTimeout.toMillis());
+    }
 
     @GetMapping("/users/username/{username}")
     public ResponseEntity<UserDto> getUserByUsername(@PathVariable String username) {
@@ -47,12 +78,30 @@ public class AdminController {
     }
 
     @GetMapping("/users")
-    public ResponseEntity<Page<UserDto>> listUsers(@RequestParam(defaultValue = "0") int page,
-                                                   @RequestParam(defaultValue = "20") int size,
-                                                   @RequestParam(defaultValue = "username") String sortBy) {
+    public ResponseEntity<Slice<UserDto>> listUsers(@RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int size,
+                                                    @RequestParam(defaultValue = "username") String sortBy,
+                                                    @RequestParam(defaultValue = "false") boolean slice) {
+        if (slice) {
+            return ResponseEntity.ok(userService.listUsersSlice(page, size, sortBy));
+        }
         return ResponseEntity.ok(userService.listUsers(page, size, sortBy));
     }
 
+    @GetMapping("/users/keyset")
+    public ResponseEntity<UserKeysetPage> listUsersKeyset(@RequestParam(defaultValue = "20") int size,
+                                                          @RequestParam(defaultValue = "username") String sortBy,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "false") boolean withCardCount) {
+        return ResponseEntity.ok(userService.listUsersKeyset(size, sortBy, cursor, withCardCount));
+    }
+
+    @GetMapping("/users/search")
+    public ResponseEntity<List<UserSearchHit>> searchUsers(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userService.searchUsers(q, limit));
+    }
+
     @PostMapping("/cards")
     public ResponseEntity<CardDto> createCard(@Valid @RequestBody CreateCardRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED).body(cardService.createCard(request));
@@ -79,4 +128,37 @@ public class AdminController {
         return ResponseEntity.ok(cardService.getAllCards(pageable));
     }
 
+    @GetMapping("/cards/export")
+    public ResponseEntity<StreamingResponseBody> exportCards(@RequestParam(defaultValue = "NDJSON") CardExportFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip,
+                                                             NativeWebRequest webRequest) {
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR, exportTimeout);
+        String filename = "cards." + format.getExtension() + (gzip ? ".gz" : "");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString());
+        if (!gzip) {
+            return response.body(out -> cardExportService.exportCards(format, out));
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                    cardExportService.exportCards(format, gzipOut);
+                    gzipOut.finish();
+                });
+    }
+
+    private static CallableProcessingInterceptor timeoutInterceptor(long timeoutMillis) {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(timeoutMillis);
+                }
+            }
+        };
+    }
+
 }
@@ -4,16 +4,22 @@ import com.example.bankcards.dto.card.CardBalanceDto;
 import com.example.bankcards.dto.card.CardDto;
 import com.example.bankcards.dto.card.TransferDto;
 import com.example.bankcards.dto.card.TransferRequest;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/cards")
@@ -22,28 +28,64 @@ import org.springframework.web.bind.annotation.*;
 public class CardController {
 
     private final CardService cardService;
+    private final CardStreamService cardStreamService;
 
     @GetMapping("/user")
-    public ResponseEntity<Page<CardDto>> listUserCards(@AuthenticationPrincipal UserDetails userDetails,
-                                                       Pageable pageable) {
-        return ResponseEntity.ok(cardService.listUserCards(userDetails, pageable));
+    public ResponseEntity<Slice<CardDto>> listUserCards(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                        Pageable pageable,
+                                                        @RequestParam(defaultValue = "false") boolean slice,
+                                                        WebRequest webRequest) {
+        String eTag = cardService.getUserCardsETag(principal, pageable, slice);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        Slice<CardDto> cards = slice
+                ? cardService.listUserCardsSlice(principal, pageable)
+                : cardService.listUserCards(principal, pageable);
+        return revalidated(eTag).body(cards);
     }
 
     @PostMapping("/{cardId}/block-request")
     public ResponseEntity<CardDto> requestBlockCard(@PathVariable Long cardId,
-                                                    @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(cardService.requestBlockCard(userDetails, cardId));
+                                                    @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(cardService.requestBlockCard(principal, cardId));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransferDto> transferBetweenCards(@AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<TransferDto> transferBetweenCards(@AuthenticationPrincipal AuthenticatedUser principal,
                                                             @Valid @RequestBody TransferRequest transferRequest) {
-        return ResponseEntity.ok(cardService.transferBetweenCards(userDetails, transferRequest));
+        return ResponseEntity.ok(cardService.transferBetweenCards(principal, transferRequest));
     }
 
     @GetMapping("/{cardId}/balance")
     public ResponseEntity<CardBalanceDto> getBalance(@PathVariable Long cardId,
-                                                     @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(cardService.getBalance(userDetails, cardId));
+                                                     @AuthenticationPrincipal AuthenticatedUser principal,
+                                                     WebRequest webRequest) {
+        String eTag = cardService.getBalanceETag(principal, cardId);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return revalidated(eTag).body(cardService.getBalance(principal, cardId));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCardChanges(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(cardStreamService.subscribe(principal));
+    }
+
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return revalidated(HttpStatus.NOT_MODIFIED, eTag).build();
+    }
+
+    private ResponseEntity.BodyBuilder revalidated(String eTag) {
+        return revalidated(HttpStatus.OK, eTag);
+    }
+
+    private ResponseEntity.BodyBuilder revalidated(HttpStatus status, String eTag) {
+        return ResponseEntity.status(status)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate());
     }
 }
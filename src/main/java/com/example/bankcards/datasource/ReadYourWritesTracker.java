@@ -0,0 +1,33 @@
+package com.example.bankcards.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Cache<String, Long> primaryUntil;
+
+    public ReadYourWritesTracker(Duration window, long maximumSize) {
+        this.windowNanos = window.toNanos();
+        this.primaryUntil = windowNanos > 0
+                ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(window).build()
+                : null;
+    }
+
+    public void recordWrite(String user) {
+        if (primaryUntil != null && user != null) {
+            primaryUntil.put(user, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean requiresPrimary(String user) {
+        if (primaryUntil == null || user == null) {
+            return false;
+        }
+        Long until = primaryUntil.getIfPresent(user);
+        return until != null && until - System.nanoTime() > 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.card;
+
+import com.example.bankcards.entity.card.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class CardExportRow {
+
+    private Long id;
+
+    private String encryptedNumber;
+
+    private String ownerUsername;
+
+    private LocalDate expiryDate;
+
+    private CardStatus status;
+
+    private BigDecimal balance;
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.dto.card;
+
+import com.example.bankcards.entity.card.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class CardStateRow {
+
+    private Long id;
+
+    private Long ownerId;
+
+    private CardStatus status;
+
+    private BigDecimal balance;
+
+    private Long version;
+}
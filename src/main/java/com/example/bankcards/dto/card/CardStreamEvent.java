@@ -0,0 +1,36 @@
+package com.example.bankcards.dto.card;
+
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardStreamEvent {
+
+    private Long cardId;
+
+    private CardChangeType type;
+
+    private CardStatus status;
+
+    private BigDecimal balance;
+
+    private Long version;
+
+    public static CardStreamEvent of(CardChangedEvent event) {
+        return CardStreamEvent.builder()
+                .cardId(event.getCardId())
+                .type(event.getType())
+                .status(event.getStatus())
+                .balance(event.getBalance())
+                .version(event.getVersion())
+                .build();
+    }
+}
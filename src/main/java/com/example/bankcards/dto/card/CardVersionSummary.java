@@ -0,0 +1,19 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class CardVersionSummary {
+
+    private Long count;
+
+    private Long versionSum;
+
+    private Long idSum;
+
+    private Instant lastUpdatedAt;
+}
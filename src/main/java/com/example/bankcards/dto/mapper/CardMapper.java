@@ -11,4 +11,8 @@ public interface CardMapper {
     @Mapping(target = "ownerUsername", source = "owner.username")
     @Mapping(target = "cardNumber", source = "encryptedNumber")
     CardDto toDto(Card card);
+
+    @Mapping(target = "ownerUsername", source = "ownerUsername")
+    @Mapping(target = "cardNumber", source = "card.encryptedNumber")
+    CardDto toDto(Card card, String ownerUsername);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto.mapper;
 
 import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.dto.user.UserListRow;
 import com.example.bankcards.entity.role.Role;
 import com.example.bankcards.entity.user.User;
 import org.mapstruct.Mapper;
@@ -15,8 +16,12 @@ import java.util.stream.Collectors;
 public interface UserMapper {
 
     @Mapping(target = "roles", source = "roles", qualifiedByName = "rolesToNames")
+    @Mapping(target = "cardCount", ignore = true)
     UserDto toDto(User user);
 
+    @Mapping(target = "roles", source = "roles")
+    UserDto toDto(UserListRow row, Set<String> roles);
+
     @Named("rolesToNames")
     default Set<String> rolesToNames(Set<Role> roles) {
         if (roles == null) return Collections.emptySet();
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserCredentialsRow {
+
+    private Long id;
+
+    private String username;
+
+    private String password;
+
+    private boolean enabled;
+
+    private Long roleId;
+}
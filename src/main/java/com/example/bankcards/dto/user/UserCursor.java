@@ -0,0 +1,60 @@
+package com.example.bankcards.dto.user;
+
+import com.example.bankcards.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record UserCursor(UserSortField sortField, long id, String value) {
+
+    private static final char SEPARATOR = ':';
+
+    public static UserCursor first(UserSortField sortField) {
+        return switch (sortField) {
+            case ID, USERNAME -> new UserCursor(sortField, 0L, "");
+            case CREATED_AT -> new UserCursor(sortField, 0L, Instant.EPOCH.toString());
+        };
+    }
+
+    public static UserCursor after(UserSortField sortField, UserListRow row) {
+        return switch (sortField) {
+            case ID -> new UserCursor(sortField, row.getId(), "");
+            case USERNAME -> new UserCursor(sortField, row.getId(), row.getUsername());
+            case CREATED_AT -> new UserCursor(sortField, row.getId(), row.getCreatedAt().toString());
+        };
+    }
+
+    public static UserCursor decode(String token, UserSortField expected) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = decoded.indexOf(SEPARATOR);
+            int second = decoded.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+            UserSortField sortField = UserSortField.valueOf(decoded.substring(0, first));
+            if (sortField != expected) {
+                throw new InvalidPageRequestException("Cursor was issued for sortBy=" + sortField.getProperty());
+            }
+            UserCursor cursor = new UserCursor(sortField, Long.parseLong(decoded.substring(first + 1, second)),
+                    decoded.substring(second + 1));
+            if (sortField == UserSortField.CREATED_AT) {
+                cursor.createdAt();
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    public Instant createdAt() {
+        return Instant.parse(value);
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,7 @@ public class UserDto {
     private boolean enabled;
 
     private Set<String> roles;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long cardCount;
 }
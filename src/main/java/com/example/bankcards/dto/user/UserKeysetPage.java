@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserKeysetPage {
+
+    private List<UserDto> content;
+
+    private int size;
+
+    private String nextCursor;
+
+    private boolean last;
+}
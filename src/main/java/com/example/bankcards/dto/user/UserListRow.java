@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class UserListRow {
+
+    private Long id;
+
+    private String username;
+
+    private boolean enabled;
+
+    private Instant createdAt;
+
+    private Long cardCount;
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserRoleRow {
+
+    private Long userId;
+
+    private Long roleId;
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchHit {
+
+    private Long id;
+
+    private String username;
+
+    private boolean enabled;
+
+    private boolean prefixMatch;
+
+    private double score;
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.dto.user;
+
+import com.example.bankcards.exception.InvalidPageRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+@Getter
+@RequiredArgsConstructor
+public enum UserSortField {
+
+    ID("id"),
+    USERNAME("username"),
+    CREATED_AT("createdAt");
+
+    private final String property;
+
+    public static UserSortField fromProperty(String property) {
+        for (UserSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new InvalidPageRequestException("Unsupported sortBy=" + property + ", allowed: "
+                + Arrays.stream(values()).map(UserSortField::getProperty).collect(Collectors.joining(", ")));
+    }
+}
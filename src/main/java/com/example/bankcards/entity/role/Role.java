@@ -2,9 +2,11 @@ package com.example.bankcards.entity.role;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Immutable;
 
 @Entity
 @Table(name = "roles")
+@Immutable
 @Getter
 @Setter
 @AllArgsConstructor
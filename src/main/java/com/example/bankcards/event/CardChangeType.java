@@ -0,0 +1,8 @@
+package com.example.bankcards.event;
+
+public enum CardChangeType {
+    CREATED,
+    STATUS_CHANGED,
+    BALANCE_CHANGED,
+    DELETED
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.event;
+
+import com.example.bankcards.dto.card.CardStateRow;
+import com.example.bankcards.entity.card.Card;
+import com.example.bankcards.entity.card.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CardChangedEvent {
+
+    private final CardChangeType type;
+
+    private final Long cardId;
+
+    private final Long ownerId;
+
+    private final CardStatus status;
+
+    private final BigDecimal balance;
+
+    private final Long version;
+
+    public static CardChangedEvent of(CardChangeType type, Card card) {
+        return new CardChangedEvent(type, card.getId(), card.getOwner().getId(),
+                card.getStatus(), card.getBalance(), card.getVersion());
+    }
+
+    public static CardChangedEvent of(CardChangeType type, CardStateRow card) {
+        return new CardChangedEvent(type, card.getId(), card.getOwnerId(),
+                card.getStatus(), card.getBalance(), card.getVersion());
+    }
+}
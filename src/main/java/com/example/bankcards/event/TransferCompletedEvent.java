@@ -0,0 +1,28 @@
+package com.example.bankcards.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class TransferCompletedEvent {
+
+    private final Long fromCardId;
+
+    private final Long toCardId;
+
+    private final Long ownerId;
+
+    private final BigDecimal amount;
+
+    private final String description;
+
+    private final Instant processedAt;
+
+    private final Long fromCardVersion;
+}
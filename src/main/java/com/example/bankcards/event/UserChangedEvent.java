@@ -0,0 +1,13 @@
+package com.example.bankcards.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+}
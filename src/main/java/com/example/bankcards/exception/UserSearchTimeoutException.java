@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class UserSearchTimeoutException extends RuntimeException {
+    public UserSearchTimeoutException(String query) {
+        super("User search timed out for query: " + query);
+    }
+}
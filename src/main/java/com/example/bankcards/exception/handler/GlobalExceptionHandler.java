@@ -1,61 +1,82 @@
 package com.example.bankcards.exception.handler;
 
 import com.example.bankcards.exception.*;
+import com.example.bankcards.util.LogRateLimiter;
 import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.time.Instant;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final LogRateLimiter NOT_FOUND_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter AUTH_FAILED_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter JWT_AUTH_FAILED_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter CARD_OPERATION_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter ACCESS_DENIED_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter VALIDATION_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter INVALID_PARAMETERS_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter CONSTRAINT_VIOLATION_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter DATABASE_UNAVAILABLE_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter OVERLOAD_LOG = LogRateLimiter.perSecond();
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler({UserNotFoundException.class, RoleNotFoundException.class, CardNotFoundException.class})
     public ResponseEntity<ApiError> handleUserNotFound(RuntimeException ex,
                                                        HttpServletRequest request) {
-        log.warn("Not found: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
+        NOT_FOUND_LOG.warn(log, "Not found: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(UsernameAlreadyExistsException.class)
     public ResponseEntity<ApiError> handleUsernameExists(UsernameAlreadyExistsException ex,
                                                          HttpServletRequest request) {
         log.warn("Conflict: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+        return buildErrorResponse(ex, HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(AuthenticationFailedException.class)
     public ResponseEntity<ApiError> handleAuthFailed(AuthenticationFailedException ex,
                                                      HttpServletRequest request) {
-        log.warn("Auth failed: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage(), request.getRequestURI());
+        AUTH_FAILED_LOG.warn(log, "Auth failed: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.UNAUTHORIZED, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(JwtAuthenticationException.class)
     public ResponseEntity<ApiError> handleJwtAuth(JwtAuthenticationException ex, HttpServletRequest request) {
-        log.warn("JWT auth failed: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage(), request.getRequestURI());
+        JWT_AUTH_FAILED_LOG.warn(log, "JWT auth failed: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.UNAUTHORIZED, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler({CardOperationException.class, InsufficientFundsException.class})
     public ResponseEntity<ApiError> handleCardOperation(RuntimeException ex, HttpServletRequest request) {
-        log.warn("Card operation error: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
+        CARD_OPERATION_LOG.warn(log, "Card operation error: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiError> handleAccessDenied(AccessDeniedException ex,
                                                        HttpServletRequest request) {
-        log.warn("Access denied: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.FORBIDDEN, "Access denied", request.getRequestURI());
+        ACCESS_DENIED_LOG.warn(log, "Access denied: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.FORBIDDEN, "Access denied", request.getRequestURI());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -63,8 +84,33 @@ public class GlobalExceptionHandler {
         String message = ex.getBindingResult().getFieldErrors().stream()
                 .map(err -> err.getField() + " " + err.getDefaultMessage())
                 .collect(Collectors.joining(", "));
-        log.warn("Validation failed: {}", message);
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, message, request.getRequestURI());
+        VALIDATION_LOG.warn(log, "Validation failed: {}", message);
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, message, request.getRequestURI());
+    }
+
+    @ExceptionHandler({InvalidPageRequestException.class, InvalidSearchQueryException.class})
+    public ResponseEntity<ApiError> handleInvalidPageRequest(RuntimeException ex, HttpServletRequest request) {
+        INVALID_PARAMETERS_LOG.warn(log, "Invalid request parameters: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(UserSearchTimeoutException.class)
+    public ResponseEntity<ApiError> handleSearchTimeout(UserSearchTimeoutException ex, HttpServletRequest request) {
+        return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiError> handleDatabaseUnavailable(Exception ex, HttpServletRequest request) {
+        DATABASE_UNAVAILABLE_LOG.warn(log, "Database connection unavailable at {}: {}", request.getRequestURI(), ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily unavailable",
+                request.getRequestURI());
+    }
+
+    @ExceptionHandler({TaskRejectedException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<ApiError> handleOverload(Exception ex, HttpServletRequest request) {
+        OVERLOAD_LOG.warn(log, "Request at {} was not processed: {}", request.getRequestURI(), ex.toString());
+        return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily unavailable",
+                request.getRequestURI());
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -73,23 +119,28 @@ public class GlobalExceptionHandler {
         String message = ex.getConstraintViolations().stream()
                 .map(v -> v.getPropertyPath() + " " + v.getMessage())
                 .collect(Collectors.joining(", "));
-        log.warn("Constraint violation: {}", message);
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, message, request.getRequestURI());
+        CONSTRAINT_VIOLATION_LOG.warn(log, "Constraint violation: {}", message);
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, message, request.getRequestURI());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex, HttpServletRequest request) {
         log.error("Unexpected error at {}: {}", request.getRequestURI(), ex.getMessage(), ex);
         return buildErrorResponse(
+                ex,
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 "Internal server error",
                 request.getRequestURI()
         );
     }
 
-    private ResponseEntity<ApiError> buildErrorResponse(HttpStatus status,
+    private ResponseEntity<ApiError> buildErrorResponse(Exception ex,
+                                                        HttpStatus status,
                                                         String message,
                                                         String path) {
+        meterRegistry.counter("api.exceptions",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
         ApiError error = new ApiError(Instant.now(), status.value(), message, path);
         return ResponseEntity.status(status).body(error);
 
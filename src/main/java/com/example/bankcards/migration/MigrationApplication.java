@@ -0,0 +1,32 @@
+package com.example.bankcards.migration;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class})
+public class MigrationApplication {
+
+    public static final String COMMAND = "migrate";
+
+    public static int run(String... args) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            throw new IllegalStateException("The migrate command is not available in the native image, "
+                    + "run it with the JVM image");
+        }
+        String[] arguments = Arrays.copyOf(args, args.length + 1);
+        arguments[args.length] = "--spring.liquibase.enabled=true";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MigrationApplication.class)
+                .main(MigrationApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments);
+        return SpringApplication.exit(context);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bankcards.migration;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.DatabaseList;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@ConditionalOnExpression("!${spring.liquibase.enabled:true} and ${db.schema-check.enabled:true}")
+public class SchemaVersionCheck implements InitializingBean {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final DataSource dataSource;
+    private final String changeLog;
+    private final String changeLogTable;
+
+    public SchemaVersionCheck(DataSource dataSource,
+                              @Value("${spring.liquibase.change-log}") String changeLog,
+                              @Value("${spring.liquibase.database-change-log-table:databasechangelog}")
+                              String changeLogTable) {
+        this.dataSource = dataSource;
+        this.changeLog = changeLog.startsWith(CLASSPATH_PREFIX)
+                ? changeLog.substring(CLASSPATH_PREFIX.length())
+                : changeLog;
+        this.changeLogTable = changeLogTable;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Set<String> pending = pendingChangeSets();
+        if (!pending.isEmpty()) {
+            throw new IllegalStateException("Database schema is behind the application, pending changesets: "
+                    + String.join(", ", pending) + ". Run the migrate job before starting the application");
+        }
+        log.info("Database schema is up to date with {}", changeLog);
+    }
+
+    public Set<String> pendingChangeSets() {
+        Set<String> pending = expectedChangeSets();
+        try {
+            List<String> applied = new JdbcTemplate(dataSource)
+                    .queryForList("select id || '::' || author from " + changeLogTable, String.class);
+            applied.forEach(pending::remove);
+        } catch (DataAccessException ex) {
+            throw new IllegalStateException("Cannot read " + changeLogTable
+                    + ", the database has not been migrated. Run the migrate job before starting the application", ex);
+        }
+        return pending;
+    }
+
+    private Set<String> expectedChangeSets() {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
+            DatabaseChangeLog databaseChangeLog = ChangeLogParserFactory.getInstance()
+                    .getParser(changeLog, resourceAccessor)
+                    .parse(changeLog, new ChangeLogParameters(database), resourceAccessor);
+            Set<String> expected = new LinkedHashSet<>();
+            for (ChangeSet changeSet : databaseChangeLog.getChangeSets()) {
+                if (DatabaseList.definitionMatches(changeSet.getDbmsSet(), database, true)) {
+                    expected.add(changeSet.getId() + "::" + changeSet.getAuthor());
+                }
+            }
+            return expected;
+        } catch (SQLException | LiquibaseException ex) {
+            throw new IllegalStateException("Cannot resolve expected changesets from " + changeLog, ex);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.monitoring;
+
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    public static SqlStats start() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(SqlStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void recordStatements(int count, long nanos) {
+        statements += count;
+        jdbcNanos += nanos;
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public String toHeaderValue() {
+        return "statements=" + statements + ";rows=" + rows + ";jdbc-ms=" + String.format("%.3f", jdbcNanos / 1_000_000.0);
+    }
+}
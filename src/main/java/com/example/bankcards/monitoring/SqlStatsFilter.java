@@ -0,0 +1,114 @@
+package com.example.bankcards.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = SqlStatsFilter.class.getName() + ".STATS";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final long warnIntervalNanos;
+    private final boolean rowsEnabled;
+    private final ConcurrentMap<String, Long> lastWarnedAt = new ConcurrentHashMap<>();
+
+    public SqlStatsFilter(MeterRegistry meterRegistry,
+                          @Value("${sql.stats.statement-budget:20}") int statementBudget,
+                          @Value("${sql.stats.warn-interval:1m}") Duration warnInterval,
+                          @Value("${sql.stats.result-sets.enabled:false}") boolean rowsEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.warnIntervalNanos = warnInterval.toNanos();
+        this.rowsEnabled = rowsEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStats stats = isAsyncDispatch(request) ? (SqlStats) request.getAttribute(STATS_ATTRIBUTE) : null;
+        if (stats == null) {
+            stats = SqlStats.start();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        } else {
+            SqlStats.bind(stats);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStats.stop();
+            if (!request.isAsyncStarted()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void record(HttpServletRequest request, SqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.request.statements")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        if (rowsEnabled) {
+            DistributionSummary.builder("sql.request.rows")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .record(stats.getRows());
+        }
+        Timer.builder("sql.request.time")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > statementBudget) {
+            meterRegistry.counter("sql.request.budget.exceeded", "method", method, "uri", uri).increment();
+            warnSampled(method + " " + uri, stats);
+        }
+    }
+
+    private void warnSampled(String endpoint, SqlStats stats) {
+        long now = System.nanoTime();
+        Long previous = lastWarnedAt.get(endpoint);
+        if (previous != null && now - previous < warnIntervalNanos) {
+            return;
+        }
+        if (previous == null ? lastWarnedAt.putIfAbsent(endpoint, now) == null : lastWarnedAt.replace(endpoint, previous, now)) {
+            log.warn("Endpoint={} exceeded SQL budget={}: {}", endpoint, statementBudget, stats.toHeaderValue());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bankcards.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "startup.report.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupTimingReport {
+
+    static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private final ApplicationStartup applicationStartup;
+    private final int top;
+
+    public StartupTimingReport(ApplicationStartup applicationStartup,
+                               @Value("${startup.report.top:15}") int top) {
+        this.applicationStartup = applicationStartup;
+        this.top = top;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        List<BeanInitTime> slowest = slowestBeans(buffering.getBufferedTimeline(), top);
+        log.info("Application ready in {} ms, slowest beans (self/total ms): {}",
+                event.getTimeTaken() == null ? "?" : event.getTimeTaken().toMillis(),
+                slowest.stream()
+                        .map(bean -> bean.beanName() + "=" + bean.self().toMillis() + "/" + bean.total().toMillis())
+                        .collect(Collectors.joining(", ")));
+    }
+
+    static List<BeanInitTime> slowestBeans(StartupTimeline timeline, int limit) {
+        Map<Long, Duration> children = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                children.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+        return timeline.getEvents().stream()
+                .filter(event -> BEAN_INSTANTIATE.equals(event.getStartupStep().getName()))
+                .map(event -> new BeanInitTime(
+                        beanName(event.getStartupStep()),
+                        event.getDuration(),
+                        event.getDuration().minus(children.getOrDefault(event.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Comparator.comparing(BeanInitTime::self).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+
+    record BeanInitTime(String beanName, Duration total, Duration self) {
+    }
+}
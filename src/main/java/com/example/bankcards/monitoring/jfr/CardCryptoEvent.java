@@ -0,0 +1,34 @@
+package com.example.bankcards.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.bankcards.CardCrypto")
+@Label("Card Number Crypto")
+@Category({"Bank Cards", "Security"})
+@StackTrace(false)
+public class CardCryptoEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public static CardCryptoEvent start(String operation) {
+        CardCryptoEvent event = new CardCryptoEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void finish(Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            outcome = JfrSupport.outcome(failure);
+            commit();
+        }
+    }
+}
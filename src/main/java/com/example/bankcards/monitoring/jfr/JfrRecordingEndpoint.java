@@ -0,0 +1,152 @@
+package com.example.bankcards.monitoring.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private final Path directory;
+    private final String settings;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    private Recording recording;
+    private Path file;
+
+    public JfrRecordingEndpoint(@Value("${jfr.recording.directory:${java.io.tmpdir}}") Path directory,
+                                @Value("${jfr.recording.settings:profile}") String settings,
+                                @Value("${jfr.recording.max-duration:10m}") Duration maxDuration,
+                                @Value("${jfr.recording.max-size:100MB}") DataSize maxSize) {
+        this.directory = directory;
+        this.settings = settings;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<RecordingStatus> status() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(RecordingStatus.of(recording));
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start(@Nullable Long durationSeconds,
+                                                                   @Nullable Long maxSizeMb) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(RecordingStatus.of(recording), HttpStatus.CONFLICT.value());
+        }
+        discard();
+        Duration duration = durationSeconds == null
+                ? maxDuration
+                : min(Duration.ofSeconds(Math.max(1, durationSeconds)), maxDuration);
+        long size = maxSizeMb == null
+                ? maxSize.toBytes()
+                : Math.min(DataSize.ofMegabytes(Math.max(1, maxSizeMb)).toBytes(), maxSize.toBytes());
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName("card-service");
+            started.setToDisk(true);
+            started.setDuration(duration);
+            started.setMaxSize(size);
+            file = directory.resolve("card-service-" + started.getId() + ".jfr");
+            started.setDestination(file);
+            started.start();
+            recording = started;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unable to start JFR recording with settings=" + settings, e);
+        }
+        log.info("JFR recording={} started for {} (maxSize={} bytes)", recording.getId(), duration, size);
+        return new WebEndpointResponse<>(RecordingStatus.of(recording));
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> stop() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("JFR recording={} stopped", recording.getId());
+        }
+        return new WebEndpointResponse<>(RecordingStatus.of(recording));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector long id) {
+        if (recording == null || recording.getId() != id) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                Path snapshot = directory.resolve("card-service-" + id + "-snapshot.jfr");
+                recording.dump(snapshot);
+                return new WebEndpointResponse<>(new FileSystemResource(snapshot));
+            }
+            if (!Files.exists(file)) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            return new WebEndpointResponse<>(new FileSystemResource(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording == null) {
+            return;
+        }
+        long id = recording.getId();
+        recording.close();
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory.resolve("card-service-" + id + "-snapshot.jfr"));
+        } catch (IOException e) {
+            log.warn("Unable to delete JFR recording={}: {}", id, e.getMessage());
+        }
+        recording = null;
+        file = null;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    public record RecordingStatus(long id, RecordingState state, Instant startTime, Instant stopTime,
+                                  Duration duration, long maxSize, long size) {
+
+        static RecordingStatus of(Recording recording) {
+            return new RecordingStatus(recording.getId(), recording.getState(), recording.getStartTime(),
+                    recording.getStopTime(), recording.getDuration(), recording.getMaxSize(), recording.getSize());
+        }
+    }
+}
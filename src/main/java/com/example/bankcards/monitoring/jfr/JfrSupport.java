@@ -0,0 +1,56 @@
+package com.example.bankcards.monitoring.jfr;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+public final class JfrSupport {
+
+    private static final byte[] SALT = salt();
+    private static final BigDecimal[] AMOUNT_BOUNDS = {
+            new BigDecimal("100"), new BigDecimal("1000"), new BigDecimal("10000"), new BigDecimal("100000")
+    };
+    private static final String[] AMOUNT_BUCKETS = {"<100", "100-1K", "1K-10K", "10K-100K", ">=100K"};
+
+    private JfrSupport() {
+    }
+
+    public static String hashCardId(Long cardId) {
+        if (cardId == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(SALT);
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(cardId).array());
+            return HexFormat.of().formatHex(digest.digest(), 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String amountBucket(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        for (int i = 0; i < AMOUNT_BOUNDS.length; i++) {
+            if (amount.compareTo(AMOUNT_BOUNDS[i]) < 0) {
+                return AMOUNT_BUCKETS[i];
+            }
+        }
+        return AMOUNT_BUCKETS[AMOUNT_BUCKETS.length - 1];
+    }
+
+    private static byte[] salt() {
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return salt;
+    }
+
+    public static String outcome(Throwable ex) {
+        return ex == null ? "SUCCESS" : ex.getClass().getSimpleName();
+    }
+}
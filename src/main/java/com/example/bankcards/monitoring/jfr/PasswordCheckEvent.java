@@ -0,0 +1,34 @@
+package com.example.bankcards.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.bankcards.PasswordCheck")
+@Label("Password Hash Check")
+@Category({"Bank Cards", "Security"})
+@StackTrace(false)
+public class PasswordCheckEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Matched")
+    private boolean matched;
+
+    public static PasswordCheckEvent start(String operation) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean matched) {
+        end();
+        if (shouldCommit()) {
+            this.matched = matched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.math.BigDecimal;
+
+@Name("com.example.bankcards.Transfer")
+@Label("Card Transfer")
+@Category({"Bank Cards", "Cards"})
+@StackTrace(false)
+public class TransferEvent extends jdk.jfr.Event {
+
+    @Label("From Card")
+    @Description("Salted hash of the source card id")
+    private String fromCard;
+
+    @Label("To Card")
+    @Description("Salted hash of the target card id")
+    private String toCard;
+
+    @Label("Amount Bucket")
+    private String amountBucket;
+
+    @Label("Lock Wait")
+    @Description("Time spent flushing balance updates, including waits for row locks")
+    @Timespan
+    private long lockWait;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public static TransferEvent start() {
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        return event;
+    }
+
+    public void lockWait(long nanos) {
+        this.lockWait = nanos;
+    }
+
+    public void finish(Long fromCardId, Long toCardId, BigDecimal amount, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            fromCard = JfrSupport.hashCardId(fromCardId);
+            toCard = JfrSupport.hashCardId(toCardId);
+            amountBucket = JfrSupport.amountBucket(amount);
+            outcome = JfrSupport.outcome(failure);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxEventSink implements OutboxEventSink {
+
+    @Override
+    public void publish(OutboxEvent event) {
+        log.info("Outbox event id={} {} {}#{} v{}: {}", event.getId(), event.getEventType(),
+                event.getAggregateType(), event.getAggregateId(), event.getAggregateVersion(), event.getPayload());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+
+public interface OutboxEventSink {
+
+    void publish(OutboxEvent event);
+}
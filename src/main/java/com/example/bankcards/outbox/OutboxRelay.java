@@ -0,0 +1,129 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Comparator<OutboxEvent> AGGREGATE_ORDER = Comparator
+            .comparing(OutboxEvent::getAggregateVersion)
+            .thenComparing(OutboxEvent::getId);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxEventSink sink,
+                       PlatformTransactionManager transactionManager,
+                       Clock clock,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun,
+                       @Value("${outbox.relay.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer locked = transactionTemplate.execute(status -> relayBatch());
+            if (locked == null || locked < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${outbox.relay.cleanup-cron:0 0 * * * *}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(Instant.now(clock).minus(retention)));
+        log.info("Purged {} published outbox events", deleted);
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockPendingBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<String> blocked = findBlockedAggregates(batch);
+        List<OutboxEvent> ordered = new ArrayList<>(batch);
+        ordered.sort(AGGREGATE_ORDER);
+
+        List<Long> published = new ArrayList<>();
+        boolean failed = false;
+        for (OutboxEvent event : ordered) {
+            if (blocked.contains(aggregateKey(event))) {
+                continue;
+            }
+            try {
+                sink.publish(event);
+                published.add(event.getId());
+            } catch (RuntimeException e) {
+                log.warn("Outbox event id={} was not published: {}", event.getId(), e.getMessage());
+                blocked.add(aggregateKey(event));
+                failed = true;
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, Instant.now(clock));
+        }
+        log.debug("Outbox relay locked={} published={} blocked={}", batch.size(), published.size(), blocked.size());
+        return failed ? 0 : batch.size();
+    }
+
+    private Set<String> findBlockedAggregates(List<OutboxEvent> batch) {
+        Map<String, OutboxEvent> firstByAggregate = new HashMap<>();
+        Set<Long> aggregateIds = new HashSet<>();
+        List<Long> batchIds = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            firstByAggregate.merge(aggregateKey(event), event,
+                    (current, candidate) -> AGGREGATE_ORDER.compare(candidate, current) < 0 ? candidate : current);
+            aggregateIds.add(event.getAggregateId());
+            batchIds.add(event.getId());
+        }
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent other : outboxEventRepository.findPendingForAggregatesExcluding(aggregateIds, batchIds)) {
+            OutboxEvent first = firstByAggregate.get(aggregateKey(other));
+            if (first != null && AGGREGATE_ORDER.compare(other, first) < 0) {
+                blocked.add(aggregateKey(other));
+            }
+        }
+        return blocked;
+    }
+
+    private static String aggregateKey(OutboxEvent event) {
+        return event.getAggregateType() + ":" + event.getAggregateId();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.TransferCompletedEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    public static final String CARD_AGGREGATE = "CARD";
+    public static final String TRANSFER_COMPLETED = "TRANSFER_COMPLETED";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCardChanged(CardChangedEvent event) {
+        long version = event.getType() == CardChangeType.DELETED ? event.getVersion() + 1 : event.getVersion();
+        append(event.getCardId(), version, event.getType().name(), event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        append(event.getFromCardId(), event.getFromCardVersion(), TRANSFER_COMPLETED, event);
+    }
+
+    private void append(Long cardId, Long version, String eventType, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(CARD_AGGREGATE)
+                .aggregateId(cardId)
+                .aggregateVersion(version)
+                .eventType(eventType)
+                .payload(toJson(payload))
+                .createdAt(Instant.now(clock))
+                .build());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload " + payload, e);
+        }
+    }
+}
@@ -1,18 +1,68 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.card.CardExportRow;
+import com.example.bankcards.dto.card.CardStateRow;
+import com.example.bankcards.dto.card.CardVersionSummary;
 import com.example.bankcards.entity.card.Card;
-import com.example.bankcards.entity.user.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
 
-    Page<Card> findByOwner(User owner, Pageable pageable);
+    String EXPORT_FETCH_SIZE = "5000";
 
-    Optional<Card> findByIdAndOwner(Long id, User owner);
+    Page<Card> findByOwnerId(Long ownerId, Pageable pageable);
+
+    Slice<Card> findSliceByOwnerId(Long ownerId, Pageable pageable);
+
+    Optional<Card> findByIdAndOwnerId(Long id, Long ownerId);
+
+    @Query("""
+            select new com.example.bankcards.dto.card.CardStateRow(c.id, c.owner.id, c.status, c.balance, c.version)
+            from Card c
+            where c.owner.id = :ownerId
+            """)
+    List<CardStateRow> findStatesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("delete from Card c where c.owner.id = :ownerId")
+    int deleteAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select c.version from Card c where c.id = :id and c.owner.id = :ownerId")
+    Optional<Long> findVersionByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    @Query("""
+            select new com.example.bankcards.dto.card.CardVersionSummary(
+                count(c), coalesce(sum(c.version), 0), coalesce(sum(c.id), 0), max(c.updatedAt))
+            from Card c
+            where c.owner.id = :ownerId
+            """)
+    CardVersionSummary summarizeVersionsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            select new com.example.bankcards.dto.card.CardExportRow(
+                c.id, c.encryptedNumber, o.username, c.expiryDate, c.status, c.balance)
+            from Card c join c.owner o
+            order by c.id
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CardExportRow> streamAllForExport();
 }
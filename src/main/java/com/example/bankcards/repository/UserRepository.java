@@ -1,9 +1,21 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.user.UserCredentialsRow;
+import com.example.bankcards.dto.user.UserListRow;
+import com.example.bankcards.dto.user.UserRoleRow;
 import com.example.bankcards.entity.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +23,61 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    @EntityGraph(User.WITH_ROLES)
+    Optional<User> findWithRolesById(Long id);
+
+    @EntityGraph(User.WITH_ROLES)
+    Optional<User> findWithRolesByUsername(String username);
+
     boolean existsByUsername(String username);
+
+    Slice<User> findSliceBy(Pageable pageable);
+
+    @Query("""
+            select new com.example.bankcards.dto.user.UserCredentialsRow(u.id, u.username, u.password, u.enabled, r.id)
+            from User u left join u.roles r
+            where u.username = :username
+            """)
+    List<UserCredentialsRow> findCredentialsByUsername(@Param("username") String username);
+
+    @Query("""
+            select new com.example.bankcards.dto.user.UserListRow(u.id, u.username, u.enabled, u.createdAt,
+                case when :withCardCount = true then (select count(c) from Card c where c.owner.id = u.id) end)
+            from User u
+            where u.id > :id
+            order by u.id
+            """)
+    List<UserListRow> findKeysetById(@Param("id") long id,
+                                     @Param("withCardCount") boolean withCardCount,
+                                     Pageable limit);
+
+    @Query("""
+            select new com.example.bankcards.dto.user.UserListRow(u.id, u.username, u.enabled, u.createdAt,
+                case when :withCardCount = true then (select count(c) from Card c where c.owner.id = u.id) end)
+            from User u
+            where u.username > :username
+            order by u.username
+            """)
+    List<UserListRow> findKeysetByUsername(@Param("username") String username,
+                                           @Param("withCardCount") boolean withCardCount,
+                                           Pageable limit);
+
+    @Query("""
+            select new com.example.bankcards.dto.user.UserListRow(u.id, u.username, u.enabled, u.createdAt,
+                case when :withCardCount = true then (select count(c) from Card c where c.owner.id = u.id) end)
+            from User u
+            where (u.createdAt, u.id) > (:createdAt, :id)
+            order by u.createdAt, u.id
+            """)
+    List<UserListRow> findKeysetByCreatedAt(@Param("createdAt") Instant createdAt,
+                                            @Param("id") long id,
+                                            @Param("withCardCount") boolean withCardCount,
+                                            Pageable limit);
+
+    @Query("select new com.example.bankcards.dto.user.UserRoleRow(u.id, r.id) from User u join u.roles r where u.id in :ids")
+    List<UserRoleRow> findRoleIdsByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
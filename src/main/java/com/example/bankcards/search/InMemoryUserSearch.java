@@ -0,0 +1,64 @@
+package com.example.bankcards.search;
+
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.exception.UserSearchTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+@Lazy
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.search.type", havingValue = "in-memory")
+public class InMemoryUserSearch implements UserSearch {
+
+    private static final Comparator<UserSearchHit> RANKING = Comparator
+            .comparing(UserSearchHit::isPrefixMatch).reversed()
+            .thenComparing(Comparator.comparingDouble(UserSearchHit::getScore).reversed())
+            .thenComparing(UserSearchHit::getUsername);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration timeout;
+    private final double similarityThreshold;
+
+    public InMemoryUserSearch(JdbcTemplate jdbcTemplate,
+                              @Value("${user.search.timeout:200ms}") Duration timeout,
+                              @Value("${user.search.similarity-threshold:0.3}") double similarityThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeout = timeout;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSearchHit> search(String query, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<UserSearchHit> hits = new ArrayList<>();
+        jdbcTemplate.query("select id, username, enabled from users", rs -> {
+            if (System.nanoTime() > deadline) {
+                log.warn("User search exceeded {} ms for query={}", timeout.toMillis(), query);
+                throw new UserSearchTimeoutException(query);
+            }
+            String username = rs.getString("username");
+            String lower = username.toLowerCase(Locale.ROOT);
+            boolean prefixMatch = lower.startsWith(normalized);
+            double score = TrigramSimilarity.similarity(lower, normalized);
+            if (prefixMatch || score >= similarityThreshold) {
+                hits.add(new UserSearchHit(rs.getLong("id"), username, rs.getBoolean("enabled"), prefixMatch, score));
+            }
+        });
+        hits.sort(RANKING);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.search;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public final class TrigramSimilarity {
+
+    private TrigramSimilarity() {
+    }
+
+    public static double similarity(String left, String right) {
+        Set<String> a = trigrams(left);
+        Set<String> b = trigrams(right);
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int common = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
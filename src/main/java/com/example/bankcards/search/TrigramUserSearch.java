@@ -0,0 +1,99 @@
+package com.example.bankcards.search;
+
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.exception.UserSearchTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+@Lazy
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.search.type", havingValue = "trigram", matchIfMissing = true)
+public class TrigramUserSearch implements UserSearch {
+
+    private static final String QUERY_CANCELED = "57014";
+
+    private static final String LIMITS = """
+            select set_config('statement_timeout', :timeout, true),
+                   set_config('pg_trgm.similarity_threshold', :threshold, true)
+            """;
+
+    private static final String SEARCH = """
+            select id, username, enabled,
+                   lower(username) like :prefix escape '\\' as prefix_match,
+                   similarity(lower(username), :query) as score
+            from users
+            where lower(username) like :prefix escape '\\'
+               or lower(username) % :query
+            order by prefix_match desc, score desc, username
+            limit :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration timeout;
+    private final double similarityThreshold;
+
+    public TrigramUserSearch(NamedParameterJdbcTemplate jdbcTemplate,
+                             @Value("${user.search.timeout:200ms}") Duration timeout,
+                             @Value("${user.search.similarity-threshold:0.3}") double similarityThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeout = timeout;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSearchHit> search(String query, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        jdbcTemplate.queryForList(LIMITS, new MapSqlParameterSource()
+                .addValue("timeout", String.valueOf(timeout.toMillis()))
+                .addValue("threshold", String.valueOf(similarityThreshold)));
+        try {
+            return jdbcTemplate.query(SEARCH, new MapSqlParameterSource()
+                            .addValue("prefix", escapeLike(normalized) + "%")
+                            .addValue("query", normalized)
+                            .addValue("limit", limit),
+                    (rs, rowNum) -> new UserSearchHit(
+                            rs.getLong("id"),
+                            rs.getString("username"),
+                            rs.getBoolean("enabled"),
+                            rs.getBoolean("prefix_match"),
+                            rs.getDouble("score")));
+        } catch (DataAccessException ex) {
+            if (!isStatementTimeout(ex)) {
+                throw ex;
+            }
+            log.warn("User search exceeded {} ms for query={}", timeout.toMillis(), query);
+            throw new UserSearchTimeoutException(query);
+        }
+    }
+
+    static boolean isStatementTimeout(DataAccessException ex) {
+        if (ex instanceof QueryTimeoutException) {
+            return true;
+        }
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && QUERY_CANCELED.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.search;
+
+import com.example.bankcards.dto.user.UserSearchHit;
+
+import java.util.List;
+
+public interface UserSearch {
+
+    List<UserSearchHit> search(String query, int limit);
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id,
+                             String username,
+                             String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, password, true, authorities);
+    }
+
+    public AuthenticatedUser(Long id,
+                             String username,
+                             String password,
+                             boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.bankcards.security;
 
-import com.example.bankcards.entity.user.User;
+import com.example.bankcards.cache.RoleRegistry;
+import com.example.bankcards.dto.user.UserCredentialsRow;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.LogRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,6 +13,9 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,26 +23,36 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DbUserDetailsService implements UserDetailsService {
 
+    private static final LogRateLimiter NOT_FOUND_LOG = LogRateLimiter.perSecond();
+
     private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = getUsernameOrThrow(username);
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
+        List<UserCredentialsRow> rows = getCredentialsOrThrow(username);
+        UserCredentialsRow user = rows.get(0);
+        Set<Long> roleIds = rows.stream()
+                .map(UserCredentialsRow::getRoleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.isEnabled(),
+                roleRegistry.getAllById(roleIds).stream()
                         .map(r -> new SimpleGrantedAuthority(r.getName()))
-                        .collect(Collectors.toList()))
-                .build();
+                        .collect(Collectors.toList()));
     }
 
-    private User getUsernameOrThrow(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    log.warn("Username={} not found", username);
-                    return new UsernameNotFoundException("User with name " + username + " not found");
-                });
+    private List<UserCredentialsRow> getCredentialsOrThrow(String username) {
+        List<UserCredentialsRow> rows = userRepository.findCredentialsByUsername(username);
+        if (rows.isEmpty()) {
+            NOT_FOUND_LOG.warn(log, "Username={} not found", username);
+            throw new UsernameNotFoundException("User with name " + username + " not found");
+        }
+        return rows;
     }
 }
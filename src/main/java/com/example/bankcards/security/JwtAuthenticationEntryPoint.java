@@ -1,5 +1,6 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.util.LogRateLimiter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -15,13 +16,14 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private static final LogRateLimiter UNAUTHORIZED_LOG = LogRateLimiter.perSecond();
 
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
 
-        log.warn("Unauthorized request to {}: {}",
+        UNAUTHORIZED_LOG.warn(log, "Unauthorized request to {}: {}",
                 request.getRequestURI(), authException == null ? "-" : authException.getMessage());
         response.setContentType("application/json");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -1,6 +1,9 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.cache.PrincipalCache;
 import com.example.bankcards.exception.JwtAuthenticationException;
+import com.example.bankcards.util.LogRateLimiter;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +13,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -23,8 +25,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final LogRateLimiter INVALID_HEADER_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter INVALID_TOKEN_LOG = LogRateLimiter.perSecond();
+
     private final JwtService jwtService;
-    private final DbUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
@@ -36,9 +41,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = tokenOpt.get();
-
-        if (!isTokenValid(token, req, res)) {
+        Optional<Claims> claimsOpt = parseClaims(tokenOpt.get(), req, res);
+        if (claimsOpt.isEmpty()) {
             return;
         }
 
@@ -47,21 +51,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        Optional<String> usernameOpt = jwtService.getUsernameOptional(token);
-        if (usernameOpt.isEmpty()) {
+        Claims claims = claimsOpt.get();
+        if (claims.getSubject() == null) {
             sendUnauthorized(res, "Invalid token: no subject");
             return;
         }
 
-        String username = usernameOpt.get();
-
-        Optional<UserDetails> userDetailsOpt = loadUserDetails(username);
-        if (userDetailsOpt.isEmpty()) {
-            sendUnauthorized(res, "User not found");
+        Optional<AuthenticatedUser> userOpt = principalCache.get(claims.getSubject())
+                .filter(user -> isSameUser(user, claims));
+        if (userOpt.isEmpty() || !userOpt.get().isEnabled()) {
+            sendUnauthorized(res, "User not found or disabled");
             return;
         }
 
-        setAuthentication(userDetailsOpt.get(), token);
+        setAuthentication(userOpt.get());
         chain.doFilter(req, res);
     }
 
@@ -69,7 +72,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             return Optional.ofNullable(extractToken(req));
         } catch (JwtAuthenticationException ex) {
-            log.debug("extractToken failed={}", ex.getMessage());
+            INVALID_HEADER_LOG.debug(log, "extractToken failed={}", ex.getMessage());
             sendUnauthorized(res, "Invalid authorization header");
             return Optional.empty();
         }
@@ -90,29 +93,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return token;
     }
 
-    private boolean isTokenValid(String token, HttpServletRequest req, HttpServletResponse res) throws IOException {
-        boolean isValid = jwtService.isTokenValid(token);
-        if (!isValid) {
-            log.debug("Token invalid/expired for={}", req.getRequestURI());
+    private Optional<Claims> parseClaims(String token, HttpServletRequest req, HttpServletResponse res)
+            throws IOException {
+        Optional<Claims> claims = jwtService.parseClaims(token);
+        if (claims.isEmpty()) {
+            INVALID_TOKEN_LOG.debug(log, "Token invalid/expired for={}", req.getRequestURI());
             sendUnauthorized(res, "Invalid or expired token");
         }
-        return isValid;
+        return claims;
     }
 
-    private boolean hasAuthentication() {
-        return SecurityContextHolder.getContext().getAuthentication() != null;
+    private boolean isSameUser(AuthenticatedUser user, Claims claims) {
+        Number userId = claims.get(JwtService.USER_ID_CLAIM, Number.class);
+        return userId == null || userId.longValue() == user.getId();
     }
 
-    private Optional<UserDetails> loadUserDetails(String username) {
-        try {
-            return Optional.of(userDetailsService.loadUserByUsername(username));
-        } catch (UsernameNotFoundException ex) {
-            log.warn("UserDetails load failed for={}: {}", username, ex.getMessage());
-            return Optional.empty();
-        }
+    private boolean hasAuthentication() {
+        return SecurityContextHolder.getContext().getAuthentication() != null;
     }
 
-    private void setAuthentication(UserDetails userDetails, String token) {
+    private void setAuthentication(UserDetails userDetails) {
         UsernamePasswordAuthenticationToken authentication =
                 new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
@@ -1,14 +1,20 @@
 package com.example.bankcards.security;
 
+import io.jsonwebtoken.Claims;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface JwtService {
 
-    String generateToken(String username, List<String> roles);
+    String USER_ID_CLAIM = "uid";
+
+    String generateToken(Long userId, String username, List<String> roles);
 
     boolean isTokenValid(String token);
 
+    Optional<Claims> parseClaims(String token);
+
     Optional<String> getUsernameOptional(String token);
 
     List<String> getRoles(String token);
@@ -1,7 +1,11 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.monitoring.jfr.JwtVerificationEvent;
+import com.example.bankcards.util.LogRateLimiter;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -16,51 +20,67 @@ import java.util.Date;
 @Service
 public class JwtServiceImpl implements JwtService {
 
+    private static final LogRateLimiter EXPIRED_TOKEN_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter INVALID_TOKEN_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter USERNAME_FAILED_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter ROLES_FAILED_LOG = LogRateLimiter.perSecond();
+    private static final String ROLES_CLAIM = "roles";
+
     private final Key signingKey;
     private final long expirationMs;
     private final Clock clock;
+    private final Timer signTimer;
+    private final Timer parseTimer;
 
     public JwtServiceImpl(
             @Value("${jwt.secret.base64}") String secretBase64,
             @Value("${jwt.expiration-ms:3600000}") long expirationMs,
-            Clock clock
+            Clock clock,
+            MeterRegistry meterRegistry
     ) {
         byte[] secret = Base64.getDecoder().decode(secretBase64);
         this.signingKey = Keys.hmacShaKeyFor(secret);
         this.expirationMs = expirationMs;
         this.clock = clock;
+        this.signTimer = operationTimer(meterRegistry, "sign");
+        this.parseTimer = operationTimer(meterRegistry, "parse");
         log.info("JwtService initialized (expirationMs={})", expirationMs);
     }
 
     @Override
-    public String generateToken(String username, List<String> roles) {
+    public String generateToken(Long userId, String username, List<String> roles) {
         Instant now = clock.instant();
-        String token = Jwts.builder()
+        String token = signTimer.record(() -> Jwts.builder()
                 .setSubject(username)
-                .claim("roles", roles.toArray(new String[0]))
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLES_CLAIM, roles.toArray(new String[0]))
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusMillis(expirationMs)))
                 .signWith(signingKey, SignatureAlgorithm.HS256)
-                .compact();
+                .compact());
         log.debug("JWT issued for user={}", username);
         return token;
     }
 
     @Override
     public boolean isTokenValid(String token) {
+        return parseClaims(token).isPresent();
+    }
+
+    @Override
+    public Optional<Claims> parseClaims(String token) {
         if (token == null || token.isBlank()) {
             log.debug("Token is null or blank");
-            return false;
+            return Optional.empty();
         }
         try {
-            parseToken(token);
-            return true;
+            return Optional.of(parseToken(token).getBody());
         } catch (ExpiredJwtException ex) {
-            log.debug("Token expired={}", ex.getMessage());
-            return false;
+            EXPIRED_TOKEN_LOG.debug(log, "Token expired={}", ex.getMessage());
+            return Optional.empty();
         } catch (JwtException | IllegalArgumentException ex) {
-            log.debug("Invalid token={}", ex.getMessage());
-            return false;
+            INVALID_TOKEN_LOG.debug(log, "Invalid token={}", ex.getMessage());
+            return Optional.empty();
         }
     }
 
@@ -72,7 +92,7 @@ public class JwtServiceImpl implements JwtService {
         try {
             return Optional.ofNullable(parseToken(token).getBody().getSubject());
         } catch (JwtException ex) {
-            log.debug("getUsername failed: {}", ex.getMessage());
+            USERNAME_FAILED_LOG.debug(log, "getUsername failed: {}", ex.getMessage());
             return Optional.empty();
         }
     }
@@ -83,31 +103,44 @@ public class JwtServiceImpl implements JwtService {
             return Collections.emptyList();
         }
         try {
-            Claims body = parseToken(token).getBody();
-
-            String[] arr = body.get("roles", String[].class);
-
-            if (arr != null && arr.length > 0) {
-                return Arrays.asList(arr);
-            }
-
-            List<?> raw = body.get("roles", List.class);
-            if (raw == null || raw.isEmpty()) {
-                return Collections.emptyList();
-            }
-            return raw.stream().map(Object::toString).toList();
+            return roles(parseToken(token).getBody());
         } catch (JwtException ex) {
-            log.debug("getRoles failed: {}", ex.getMessage());
+            ROLES_FAILED_LOG.debug(log, "getRoles failed: {}", ex.getMessage());
             return Collections.emptyList();
         }
     }
 
+    private static List<String> roles(Claims body) {
+        if (!(body.get(ROLES_CLAIM) instanceof Collection<?> roles)) {
+            return Collections.emptyList();
+        }
+        return roles.stream().map(Object::toString).toList();
+    }
+
     private Jws<Claims> parseToken(String token) throws JwtException {
-        return Jwts.parserBuilder()
-                .setClock(() -> Date.from(clock.instant()))
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token);
+        JwtVerificationEvent event = JwtVerificationEvent.start();
+        String outcome = "INVALID";
+        try {
+            Jws<Claims> jws = parseTimer.record(() -> Jwts.parserBuilder()
+                    .setClock(() -> Date.from(clock.instant()))
+                    .setSigningKey(signingKey)
+                    .build()
+                    .parseClaimsJws(token));
+            outcome = "VALID";
+            return jws;
+        } catch (ExpiredJwtException ex) {
+            outcome = "EXPIRED";
+            throw ex;
+        } finally {
+            event.finish(outcome);
+        }
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("jwt.operations")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
 
@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CardExportService {
+
+    long exportCards(CardExportFormat format, OutputStream out) throws IOException;
+}
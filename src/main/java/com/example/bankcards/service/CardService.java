@@ -1,9 +1,10 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.card.*;
+import com.example.bankcards.security.AuthenticatedUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.data.domain.Slice;
 
 public interface CardService {
     CardDto createCard(CreateCardRequest request);
@@ -16,12 +17,18 @@ public interface CardService {
 
     Page<CardDto> getAllCards(Pageable pageable);
 
-    Page<CardDto> listUserCards(UserDetails userDetails, Pageable pageable);
+    Page<CardDto> listUserCards(AuthenticatedUser principal, Pageable pageable);
 
-    CardBalanceDto getBalance(UserDetails userDetails, Long cardId);
+    Slice<CardDto> listUserCardsSlice(AuthenticatedUser principal, Pageable pageable);
 
-    CardDto requestBlockCard(UserDetails userDetails, Long cardId);
+    String getUserCardsETag(AuthenticatedUser principal, Pageable pageable, boolean slice);
 
-    TransferDto transferBetweenCards(UserDetails userDetails, TransferRequest request);
+    CardBalanceDto getBalance(AuthenticatedUser principal, Long cardId);
+
+    String getBalanceETag(AuthenticatedUser principal, Long cardId);
+
+    CardDto requestBlockCard(AuthenticatedUser principal, Long cardId);
+
+    TransferDto transferBetweenCards(AuthenticatedUser principal, TransferRequest request);
 
 }
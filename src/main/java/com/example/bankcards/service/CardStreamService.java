@@ -0,0 +1,9 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.security.AuthenticatedUser;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface CardStreamService {
+
+    SseEmitter subscribe(AuthenticatedUser principal);
+}
@@ -2,7 +2,12 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.user.UpdateUserRequest;
 import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.dto.user.UserKeysetPage;
+import com.example.bankcards.dto.user.UserSearchHit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 
 public interface UserService {
@@ -16,4 +21,10 @@ public interface UserService {
     void deleteUser(Long id);
 
     Page<UserDto> listUsers(int page, int size, String sortBy);
+
+    Slice<UserDto> listUsersSlice(int page, int size, String sortBy);
+
+    UserKeysetPage listUsersKeyset(int size, String sortBy, String cursor, boolean withCardCount);
+
+    List<UserSearchHit> searchUsers(String query, int limit);
 }
@@ -1,17 +1,19 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.RoleRegistry;
+import com.example.bankcards.config.MetricsConfig;
 import com.example.bankcards.dto.user.AuthRequest;
 import com.example.bankcards.dto.user.AuthResponse;
 import com.example.bankcards.dto.user.RegisterRequest;
 import com.example.bankcards.entity.role.Role;
 import com.example.bankcards.entity.user.User;
 import com.example.bankcards.exception.AuthenticationFailedException;
-import com.example.bankcards.exception.RoleNotFoundException;
 import com.example.bankcards.exception.UsernameAlreadyExistsException;
-import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.security.JwtService;
 import com.example.bankcards.service.AuthService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,6 +30,7 @@ import java.util.List;
 import java.util.Set;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Slf4j
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -35,7 +38,7 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
 
     @Override
@@ -50,7 +53,8 @@ public class AuthServiceImpl implements AuthService {
                     .map(GrantedAuthority::getAuthority)
                     .toList();
 
-            String token = jwtService.generateToken(username, roles);
+            Long userId = ((AuthenticatedUser) auth.getPrincipal()).getId();
+            String token = jwtService.generateToken(userId, username, roles);
             return new AuthResponse(token, username, roles);
         } catch (BadCredentialsException ex) {
             log.warn("Authentication failed for user={}: {}", authRequest.getUsername(), ex.getMessage());
@@ -74,8 +78,7 @@ public class AuthServiceImpl implements AuthService {
         user.setEnabled(true);
         user.setCreatedAt(Instant.now());
 
-        Role userRole = roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new RoleNotFoundException("ROLE_USER"));
+        Role userRole = roleRegistry.getByName("ROLE_USER");
 
         user.setRoles(Set.of(userRole));
 
@@ -0,0 +1,116 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.card.CardExportFormat;
+import com.example.bankcards.dto.card.CardExportRow;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardExportService;
+import com.example.bankcards.util.CardEncryptionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Lazy
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CardExportServiceImpl implements CardExportService {
+
+    private static final String CSV_HEADER = "id,cardNumberMasked,ownerUsername,expiryDate,status,balance";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final CardRepository cardRepository;
+    private final CardEncryptionService encryptionService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public long exportCards(CardExportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long exported;
+        try (Stream<CardExportRow> rows = cardRepository.streamAllForExport()) {
+            exported = switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), out);
+                case CSV -> writeCsv(rows.iterator(), out);
+            };
+        }
+        log.info("Exported {} cards as {} in {} ms", exported, format, (System.nanoTime() - started) / 1_000_000);
+        return exported;
+    }
+
+    private long writeNdjson(Iterator<CardExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (rows.hasNext()) {
+                CardExportRow row = rows.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.getId());
+                generator.writeStringField("cardNumberMasked", maskedNumber(row));
+                generator.writeStringField("ownerUsername", row.getOwnerUsername());
+                generator.writeStringField("expiryDate", String.valueOf(row.getExpiryDate()));
+                generator.writeStringField("status", String.valueOf(row.getStatus()));
+                generator.writeNumberField("balance", row.getBalance());
+                generator.writeEndObject();
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<CardExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            CardExportRow row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(maskedNumber(row));
+            writer.write(',');
+            writer.write(escapeCsv(row.getOwnerUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getExpiryDate()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getStatus()));
+            writer.write(',');
+            writer.write(row.getBalance().toPlainString());
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private String maskedNumber(CardExportRow row) {
+        return encryptionService.mask(encryptionService.decrypt(row.getEncryptedNumber()));
+    }
+
+    private String escapeCsv(String value) {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = '\'' + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,44 +1,69 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.MetricsConfig;
+import com.example.bankcards.cache.CardBalanceCache;
 import com.example.bankcards.dto.card.*;
 import com.example.bankcards.dto.mapper.CardMapper;
 import com.example.bankcards.entity.card.Card;
 import com.example.bankcards.entity.card.CardStatus;
 import com.example.bankcards.entity.user.User;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.TransferCompletedEvent;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.CardOperationException;
 import com.example.bankcards.exception.InsufficientFundsException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.monitoring.jfr.TransferEvent;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.util.CardEncryptionService;
+import com.example.bankcards.util.LogRateLimiter;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Optional;
 import java.util.UUID;
 
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class CardServiceImpl implements CardService {
 
+    private static final LogRateLimiter ETAG_NOT_FOUND_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter OWNER_NOT_FOUND_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter CARD_NOT_FOUND_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter OWNED_CARD_NOT_FOUND_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter FROM_INACTIVE_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter TO_INACTIVE_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter SAME_CARD_LOG = LogRateLimiter.perSecond();
+    private static final LogRateLimiter INSUFFICIENT_FUNDS_LOG = LogRateLimiter.perSecond();
+
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardEncryptionService encryptionService;
     private final CardMapper cardMapper;
+    private final CardBalanceCache balanceCache;
+    private final ApplicationEventPublisher eventPublisher;
     private final Clock clock;
 
     @Override
@@ -51,6 +76,7 @@ public class CardServiceImpl implements CardService {
         Card card = buildNewCard(owner, encryptedNumber, request.getExpireDate());
 
         Card saved = cardRepository.save(card);
+        publishCardChanged(CardChangeType.CREATED, saved);
         log.info("Card with id={} created successfully", saved.getId());
         return cardMapper.toDto(saved);
     }
@@ -64,6 +90,8 @@ public class CardServiceImpl implements CardService {
 
         card.setStatus(CardStatus.BLOCKED);
         Card savedCard = cardRepository.save(card);
+        cardRepository.flush();
+        publishCardChanged(CardChangeType.STATUS_CHANGED, savedCard);
         log.info("Card with id={} blocked successfully", cardId);
         return cardMapper.toDto(savedCard);
     }
@@ -82,6 +110,8 @@ public class CardServiceImpl implements CardService {
 
         card.setStatus(CardStatus.ACTIVE);
         Card savedCard = cardRepository.save(card);
+        cardRepository.flush();
+        publishCardChanged(CardChangeType.STATUS_CHANGED, savedCard);
         log.info("Card with id={} activated successfully", cardId);
         return cardMapper.toDto(savedCard);
     }
@@ -95,6 +125,7 @@ public class CardServiceImpl implements CardService {
             throw new CardOperationException("Можно удалить только карту в статусе EXPIRED или NEW");
         }
         cardRepository.delete(card);
+        publishCardChanged(CardChangeType.DELETED, card);
         log.info("Card with id={} deleted successfully", cardId);
     }
 
@@ -104,110 +135,164 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
-    public Page<CardDto> listUserCards(UserDetails userDetails, Pageable pageable) {
-        User owner = getOwnerByUsernameOrThrow(userDetails.getUsername());
-        return cardRepository.findByOwner(owner, pageable).map(cardMapper::toDto);
+    public Page<CardDto> listUserCards(AuthenticatedUser principal, Pageable pageable) {
+        return cardRepository.findByOwnerId(principal.getId(), pageable)
+                .map(card -> cardMapper.toDto(card, principal.getUsername()));
     }
 
     @Override
-    public CardBalanceDto getBalance(UserDetails userDetails, Long cardId) {
-        User owner = getOwnerByUsernameOrThrow(userDetails.getUsername());
-        Card card = getCardByIdAndOwnerOrThrow(cardId, owner);
+    public Slice<CardDto> listUserCardsSlice(AuthenticatedUser principal, Pageable pageable) {
+        return cardRepository.findSliceByOwnerId(principal.getId(), pageable)
+                .map(card -> cardMapper.toDto(card, principal.getUsername()));
+    }
+
+    @Override
+    public String getUserCardsETag(AuthenticatedUser principal, Pageable pageable, boolean slice) {
+        CardVersionSummary summary = cardRepository.summarizeVersionsByOwnerId(principal.getId());
+        String fingerprint = String.join("|",
+                String.valueOf(principal.getId()),
+                principal.getUsername(),
+                String.valueOf(summary.getCount()),
+                String.valueOf(summary.getVersionSum()),
+                String.valueOf(summary.getIdSum()),
+                String.valueOf(summary.getLastUpdatedAt()),
+                String.valueOf(LocalDate.now(clock)),
+                String.valueOf(pageable),
+                String.valueOf(slice));
+        return DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public CardBalanceDto getBalance(AuthenticatedUser principal, Long cardId) {
+        Optional<CardBalanceDto> cached = balanceCache.get(cardId, principal.getId());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Card card = getCardByIdAndOwnerOrThrow(cardId, principal.getId());
         String masked = encryptionService.mask(encryptionService.decrypt(card.getEncryptedNumber()));
-        return CardBalanceDto.builder()
+        CardBalanceDto balance = CardBalanceDto.builder()
                 .id(card.getId())
                 .cardNumberMasked(masked)
                 .balance(card.getBalance())
                 .build();
+        balanceCache.put(principal.getId(), card.getVersion(), card.getExpiryDate(), balance);
+        return balance;
     }
 
     @Override
-    @Transactional
-    public CardDto requestBlockCard(UserDetails userDetails, Long cardId) {
-        User owner = getOwnerByUsernameOrThrow(userDetails.getUsername());
+    public String getBalanceETag(AuthenticatedUser principal, Long cardId) {
+        Long version = balanceCache.getVersion(cardId, principal.getId())
+                .or(() -> cardRepository.findVersionByIdAndOwnerId(cardId, principal.getId()))
+                .orElseThrow(() -> {
+                    ETAG_NOT_FOUND_LOG.warn(log, "CardId={} for UserId={} not found", cardId, principal.getId());
+                    return new CardNotFoundException(cardId);
+                });
+        return cardId + "-" + version;
+    }
 
-        Card card = getCardByIdAndOwnerOrThrow(cardId, owner);
+    @Override
+    @Transactional
+    public CardDto requestBlockCard(AuthenticatedUser principal, Long cardId) {
+        Card card = getCardByIdAndOwnerOrThrow(cardId, principal.getId());
 
         card.setStatus(CardStatus.BLOCK_REQUEST);
-        log.info("User={} requested block for card={}", owner.getUsername(), cardId);
+        cardRepository.flush();
+        publishCardChanged(CardChangeType.STATUS_CHANGED, card);
+        log.info("User={} requested block for card={}", principal.getUsername(), cardId);
 
-        return cardMapper.toDto(card);
+        return cardMapper.toDto(card, principal.getUsername());
     }
 
     @Override
     @Transactional
-    public TransferDto transferBetweenCards(UserDetails userDetails, TransferRequest request) {
-        User owner = getOwnerByUsernameOrThrow(userDetails.getUsername());
-        Card from = getCardByIdAndOwnerOrThrow(request.getFromCardId(), owner);
-        Card to = getCardByIdAndOwnerOrThrow(request.getToCardId(), owner);
+    public TransferDto transferBetweenCards(AuthenticatedUser principal, TransferRequest request) {
+        TransferEvent event = TransferEvent.start();
+        Throwable failure = null;
+        try {
+            return transfer(principal, request, event);
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.finish(request.getFromCardId(), request.getToCardId(), request.getAmount(), failure);
+        }
+    }
+
+    private TransferDto transfer(AuthenticatedUser principal, TransferRequest request, TransferEvent event) {
+        Card from = getCardByIdAndOwnerOrThrow(request.getFromCardId(), principal.getId());
+        Card to = getCardByIdAndOwnerOrThrow(request.getToCardId(), principal.getId());
 
         if (from.getStatus() != CardStatus.ACTIVE) {
-            log.warn("Card={} isn't activated, status={}", from.getId(), from.getStatus().toString());
+            FROM_INACTIVE_LOG.warn(log, "Card={} isn't activated, status={}", from.getId(), from.getStatus());
             throw new CardOperationException("The card " + from.getId() + " is not activated");
         }
 
         if (to.getStatus() != CardStatus.ACTIVE) {
-            log.warn("Card={} isn't activated, status={}", to.getId(), to.getStatus().toString());
+            TO_INACTIVE_LOG.warn(log, "Card={} isn't activated, status={}", to.getId(), to.getStatus());
             throw new CardOperationException("The card " + to.getId() + " is not activated");
         }
 
         if (from.equals(to)) {
-            log.warn("CardFrom={} equals CardTo={}", from, to);
+            SAME_CARD_LOG.warn(log, "CardFrom={} equals CardTo={}", from.getId(), to.getId());
             throw new CardOperationException("Cannot transfer to the same card");
         }
 
         if (from.getBalance().compareTo(request.getAmount()) < 0) {
-            log.warn("Insufficient funds to perform the operation");
+            INSUFFICIENT_FUNDS_LOG.warn(log, "Insufficient funds on card={}", from.getId());
             throw new InsufficientFundsException(from.getId());
         }
         from.setBalance(from.getBalance().subtract(request.getAmount()));
         to.setBalance(to.getBalance().add(request.getAmount()));
+        long flushStarted = System.nanoTime();
+        cardRepository.flush();
+        event.lockWait(System.nanoTime() - flushStarted);
+        publishCardChanged(CardChangeType.BALANCE_CHANGED, from);
+        publishCardChanged(CardChangeType.BALANCE_CHANGED, to);
+        Instant processedAt = Instant.now();
+        eventPublisher.publishEvent(new TransferCompletedEvent(from.getId(), to.getId(), principal.getId(),
+                request.getAmount(), request.getDescription(), processedAt, from.getVersion()));
         log.info("User={} transferred={} from card={} to card={}",
-                owner.getUsername(), request.getAmount(), from.getId(), to.getId());
+                principal.getUsername(), request.getAmount(), from.getId(), to.getId());
 
         return TransferDto.builder()
                 .fromCardId(from.getId())
                 .toCardId(to.getId())
                 .amount(request.getAmount())
                 .description(request.getDescription())
-                .processedAt(Instant.now())
+                .processedAt(processedAt)
                 .build();
     }
 
     private User getOwnerOrThrow(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("OwnerId={} not found", id);
+                    OWNER_NOT_FOUND_LOG.warn(log, "OwnerId={} not found", id);
                     return new UserNotFoundException(id);
                 });
     }
 
-    private User getOwnerByUsernameOrThrow(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    log.warn("Username={} not found", username);
-                    return new UserNotFoundException(username);
-                });
-    }
-
     private Card getCardIdOrThrow(Long id) {
         Card card = cardRepository.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("CardId={} not found", id);
+                    CARD_NOT_FOUND_LOG.warn(log, "CardId={} not found", id);
                     return new CardNotFoundException(id);
                 });
         return markExpiredIfNeeded(card);
     }
 
-    private Card getCardByIdAndOwnerOrThrow(Long cardId, User owner) {
-        Card card = cardRepository.findByIdAndOwner(cardId, owner)
+    private Card getCardByIdAndOwnerOrThrow(Long cardId, Long ownerId) {
+        Card card = cardRepository.findByIdAndOwnerId(cardId, ownerId)
                 .orElseThrow(() -> {
-                    log.warn("CardId={} for UserId={} not found", cardId, owner.getId());
+                    OWNED_CARD_NOT_FOUND_LOG.warn(log, "CardId={} for UserId={} not found", cardId, ownerId);
                     return new CardNotFoundException(cardId);
                 });
         return markExpiredIfNeeded(card);
     }
 
+    private void publishCardChanged(CardChangeType type, Card card) {
+        eventPublisher.publishEvent(CardChangedEvent.of(type, card));
+    }
+
     private String generateEncryptedCardNumber() {
         String rawNumber = UUID.randomUUID().toString().replaceAll("-", "").substring(0, 16);
         return encryptionService.encrypt(rawNumber);
@@ -234,6 +319,10 @@ public class CardServiceImpl implements CardService {
         LocalDate today = LocalDate.now(clock);
         if (!card.getExpiryDate().isAfter(today) && card.getStatus() != CardStatus.EXPIRED) {
             card.setStatus(CardStatus.EXPIRED);
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                cardRepository.flush();
+                publishCardChanged(CardChangeType.STATUS_CHANGED, card);
+            }
             log.info("Card={} expired", card.getId());
         }
         return card;
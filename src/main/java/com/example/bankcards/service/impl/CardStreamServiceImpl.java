@@ -0,0 +1,219 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.card.CardStreamEvent;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.service.CardStreamService;
+import com.example.bankcards.util.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+public class CardStreamServiceImpl implements CardStreamService {
+
+    private static final String EVENT_NAME = "card";
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolTaskScheduler scheduler;
+    private final ExecutorService sender;
+    private final Duration timeout;
+    private final int maxPendingCards;
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter overflowed;
+    private final Counter stalled;
+
+    public CardStreamServiceImpl(@Value("${card.stream.timeout:30m}") Duration timeout,
+                                 @Value("${card.stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+                                 @Value("${card.stream.max-pending-cards:64}") int maxPendingCards,
+                                 @Value("${card.stream.sender-threads:4}") int senderThreads,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.maxPendingCards = maxPendingCards;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.setPoolSize(virtualThreads ? 1 : senderThreads);
+        this.scheduler.setThreadNamePrefix("card-stream-");
+        this.scheduler.initialize();
+        this.sender = virtualThreads
+                ? VirtualThreads.newThreadPerTaskExecutor("card-stream-")
+                : scheduler.getScheduledExecutor();
+        this.scheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeatInterval);
+        this.sent = Counter.builder("card.stream.events").tag("result", "sent").register(meterRegistry);
+        this.coalesced = Counter.builder("card.stream.events").tag("result", "coalesced").register(meterRegistry);
+        this.overflowed = Counter.builder("card.stream.events").tag("result", "overflowed").register(meterRegistry);
+        this.stalled = Counter.builder("card.stream.events").tag("result", "stalled").register(meterRegistry);
+        Gauge.builder("card.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(AuthenticatedUser principal) {
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(principal.getId(), emitter);
+        subscribers.computeIfAbsent(principal.getId(), id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+        log.debug("UserId={} subscribed to card stream", principal.getId());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardChanged(CardChangedEvent event) {
+        if (event.getType() != CardChangeType.BALANCE_CHANGED && event.getType() != CardChangeType.STATUS_CHANGED) {
+            return;
+        }
+        Set<Subscriber> owned = subscribers.get(event.getOwnerId());
+        if (owned == null) {
+            return;
+        }
+        CardStreamEvent payload = CardStreamEvent.of(event);
+        for (Subscriber subscriber : owned) {
+            if (subscriber.offer(payload)) {
+                sender.execute(subscriber::drain);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(owned -> owned.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+        scheduler.shutdown();
+    }
+
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void sendHeartbeats() {
+        try {
+            subscribers.values().forEach(owned -> owned.forEach(Subscriber::heartbeat));
+        } catch (RejectedExecutionException e) {
+            log.debug("Card stream heartbeats skipped, sender is shutting down");
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        Set<Subscriber> owned = subscribers.get(subscriber.ownerId);
+        if (owned != null && owned.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.ownerId, (id, current) -> current.isEmpty() ? null : current);
+            log.debug("UserId={} unsubscribed from card stream", subscriber.ownerId);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long ownerId;
+        private final SseEmitter emitter;
+        private final Map<Long, CardStreamEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+        private boolean draining;
+
+        private Subscriber(Long ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+        }
+
+        synchronized boolean offer(CardStreamEvent event) {
+            CardStreamEvent current = pending.get(event.getCardId());
+            if (current != null) {
+                coalesced.increment();
+                if (current.getVersion() > event.getVersion()) {
+                    return false;
+                }
+            } else if (pending.size() >= maxPendingCards) {
+                overflowed.increment();
+                log.warn("Card stream for UserId={} overflowed, closing", ownerId);
+                pending.clear();
+                emitter.complete();
+                return false;
+            }
+            pending.put(event.getCardId(), event);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        void drain() {
+            while (true) {
+                List<CardStreamEvent> batch;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+                for (CardStreamEvent event : batch) {
+                    if (!send(SseEmitter.event()
+                            .id(event.getCardId() + "-" + event.getVersion())
+                            .name(EVENT_NAME)
+                            .data(event, MediaType.APPLICATION_JSON))) {
+                        return;
+                    }
+                    sent.increment();
+                }
+            }
+        }
+
+        void heartbeat() {
+            if (!heartbeatPending.compareAndSet(false, true)) {
+                stalled.increment();
+                log.warn("Card stream for UserId={} stalled, dropping", ownerId);
+                unsubscribe(this);
+                sender.execute(emitter::complete);
+                return;
+            }
+            sender.execute(() -> {
+                if (send(SseEmitter.event().comment("heartbeat"))) {
+                    heartbeatPending.set(false);
+                }
+            });
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Card stream for UserId={} closed: {}", ownerId, e.getMessage());
+                unsubscribe(this);
+                return false;
+            }
+        }
+    }
+}
@@ -1,40 +1,70 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.RoleRegistry;
+import com.example.bankcards.config.MetricsConfig;
+import com.example.bankcards.dto.card.CardStateRow;
 import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.dto.user.UserCursor;
 import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.dto.user.UserKeysetPage;
+import com.example.bankcards.dto.user.UserListRow;
+import com.example.bankcards.dto.user.UserRoleRow;
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.dto.user.UserSortField;
 import com.example.bankcards.dto.mapper.UserMapper;
 import com.example.bankcards.entity.role.Role;
 import com.example.bankcards.entity.user.User;
-import com.example.bankcards.exception.RoleNotFoundException;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.UserChangedEvent;
+import com.example.bankcards.exception.InvalidPageRequestException;
+import com.example.bankcards.exception.InvalidSearchQueryException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.exception.UsernameAlreadyExistsException;
-import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.search.UserSearch;
 import com.example.bankcards.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_KEYSET_SIZE = 100;
+    private static final int MIN_SEARCH_QUERY_LENGTH = 2;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final CardRepository cardRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    @Lazy
+    private final UserSearch userSearch;
 
 
     @Override
@@ -68,6 +98,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId()));
         log.info("User with id={} updated successfully", saved.getId());
         return userMapper.toDto(saved);
     }
@@ -75,36 +106,96 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        User user = getUserOrThrow(id);
-        userRepository.delete(user);
-        log.info("User={} deleted successfully", id);
+        List<CardStateRow> cards = cardRepository.findStatesByOwnerId(id);
+        int deleted = cardRepository.deleteAllByOwnerId(id);
+        if (userRepository.deleteUserById(id) == 0) {
+            log.warn("UserId={} not found", id);
+            throw new UserNotFoundException(id);
+        }
+        cards.forEach(card -> eventPublisher.publishEvent(CardChangedEvent.of(CardChangeType.DELETED, card)));
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+        log.info("User={} deleted successfully with {} cards", id, deleted);
     }
 
     private Set<Role> resolveRoles(Set<String> roleNames) {
-        List<Role> foundRoles = roleRepository.findAllByNameIn(roleNames);
-        Set<String> foundNames = foundRoles.stream()
-                .map(Role::getName)
-                .collect(Collectors.toSet());
+        return new HashSet<>(roleRegistry.getAllByName(roleNames));
+    }
 
-        Set<String> missing = new HashSet<>(roleNames);
-        missing.removeAll(foundNames);
+    @Override
+    public Page<UserDto> listUsers(int page, int size, String sortBy) {
+        Pageable pageable = PageRequest.of(page, size, sortOf(sortBy));
+        return userRepository.findAll(pageable).map(userMapper::toDto);
+    }
 
-        if (!missing.isEmpty()) {
-            log.warn("Roles not found={}", String.join(", ", missing));
-            throw new RoleNotFoundException("Roles not found: " + String.join(", ", missing));
-        }
+    @Override
+    public Slice<UserDto> listUsersSlice(int page, int size, String sortBy) {
+        Pageable pageable = PageRequest.of(page, size, sortOf(sortBy));
+        return userRepository.findSliceBy(pageable).map(userMapper::toDto);
+    }
 
-        return new HashSet<>(foundRoles);
+    @Override
+    public UserKeysetPage listUsersKeyset(int size, String sortBy, String cursor, boolean withCardCount) {
+        UserSortField sortField = UserSortField.fromProperty(sortBy);
+        if (size < 1 || size > MAX_KEYSET_SIZE) {
+            throw new InvalidPageRequestException("size must be between 1 and " + MAX_KEYSET_SIZE);
+        }
+        UserCursor after = cursor == null || cursor.isBlank()
+                ? UserCursor.first(sortField)
+                : UserCursor.decode(cursor, sortField);
+
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<UserListRow> rows = switch (sortField) {
+            case ID -> userRepository.findKeysetById(after.id(), withCardCount, limit);
+            case USERNAME -> userRepository.findKeysetByUsername(after.value(), withCardCount, limit);
+            case CREATED_AT -> userRepository.findKeysetByCreatedAt(after.createdAt(), after.id(), withCardCount, limit);
+        };
+
+        boolean last = rows.size() <= size;
+        List<UserListRow> page = last ? rows : rows.subList(0, size);
+        Map<Long, Set<String>> roles = roleNamesByUserId(page);
+        List<UserDto> content = page.stream()
+                .map(row -> userMapper.toDto(row, roles.getOrDefault(row.getId(), Set.of())))
+                .toList();
+        String nextCursor = last ? null : UserCursor.after(sortField, page.get(page.size() - 1)).encode();
+        return new UserKeysetPage(content, size, nextCursor, last);
     }
 
     @Override
-    public Page<UserDto> listUsers(int page, int size, String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        return userRepository.findAll(pageable).map(userMapper::toDto);
+    public List<UserSearchHit> searchUsers(String query, int limit) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.length() < MIN_SEARCH_QUERY_LENGTH || trimmed.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new InvalidSearchQueryException("q must be between " + MIN_SEARCH_QUERY_LENGTH
+                    + " and " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidSearchQueryException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return userSearch.search(trimmed, limit);
+    }
+
+    private Map<Long, Set<String>> roleNamesByUserId(List<UserListRow> rows) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<Long>> roleIds = userRepository.findRoleIdsByUserIdIn(rows.stream().map(UserListRow::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(UserRoleRow::getUserId,
+                        Collectors.mapping(UserRoleRow::getRoleId, Collectors.toSet())));
+        Map<Long, Set<String>> names = new HashMap<>();
+        roleIds.forEach((userId, ids) -> names.put(userId, roleRegistry.getAllById(ids).stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet())));
+        return names;
+    }
+
+    private Sort sortOf(String sortBy) {
+        UserSortField sortField = UserSortField.fromProperty(sortBy);
+        Sort sort = Sort.by(sortField.getProperty());
+        return sortField == UserSortField.ID ? sort : sort.and(Sort.by(UserSortField.ID.getProperty()));
     }
 
     private User getUserOrThrow(Long id) {
-        return userRepository.findById(id)
+        return userRepository.findWithRolesById(id)
                 .orElseThrow(() -> {
                     log.warn("UserId={} not found", id);
                     return new UserNotFoundException(id);
@@ -112,7 +203,7 @@ public class UserServiceImpl implements UserService {
     }
 
     private User getUserOrThrow(String username) {
-        return userRepository.findByUsername(username)
+        return userRepository.findWithRolesByUsername(username)
                 .orElseThrow(() -> {
                     log.warn("Username={} not found", username);
                     return new UserNotFoundException(username);
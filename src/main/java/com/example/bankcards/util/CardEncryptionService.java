@@ -1,6 +1,8 @@
 package com.example.bankcards.util;
 
-import lombok.RequiredArgsConstructor;
+import com.example.bankcards.monitoring.jfr.CardCryptoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
@@ -9,12 +11,45 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 @Service
-@RequiredArgsConstructor
 public class CardEncryptionService {
 
     private final SecretKey secretKey;
+    private final Timer encryptTimer;
+    private final Timer decryptTimer;
+
+    public CardEncryptionService(SecretKey secretKey, MeterRegistry meterRegistry) {
+        this.secretKey = secretKey;
+        this.encryptTimer = operationTimer(meterRegistry, "encrypt");
+        this.decryptTimer = operationTimer(meterRegistry, "decrypt");
+    }
 
     public String encrypt(String plain) {
+        CardCryptoEvent event = CardCryptoEvent.start("encrypt");
+        Throwable failure = null;
+        try {
+            return encryptTimer.record(() -> doEncrypt(plain));
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.finish(failure);
+        }
+    }
+
+    public String decrypt(String encrypted) {
+        CardCryptoEvent event = CardCryptoEvent.start("decrypt");
+        Throwable failure = null;
+        try {
+            return decryptTimer.record(() -> doDecrypt(encrypted));
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.finish(failure);
+        }
+    }
+
+    private String doEncrypt(String plain) {
         try {
             Cipher cipher = Cipher.getInstance("AES");
             cipher.init(Cipher.ENCRYPT_MODE, secretKey);
@@ -25,7 +60,7 @@ public class CardEncryptionService {
         }
     }
 
-    public String decrypt(String encrypted) {
+    private String doDecrypt(String encrypted) {
         try {
             Cipher cipher = Cipher.getInstance("AES");
             cipher.init(Cipher.DECRYPT_MODE, secretKey);
@@ -42,4 +77,11 @@ public class CardEncryptionService {
         }
         return "**** **** **** " + cardNumber.substring(cardNumber.length() - 4);
     }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("card.crypto.operations")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.bankcards.util;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LogRateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextPermitAt;
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextPermitAt = new AtomicLong(System.nanoTime());
+    }
+
+    public static LogRateLimiter perSecond() {
+        return new LogRateLimiter(Duration.ofSeconds(1));
+    }
+
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long next = nextPermitAt.get();
+        if (now - next >= 0 && nextPermitAt.compareAndSet(next, now + intervalNanos)) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    public long takeSuppressed() {
+        return suppressed.sumThenReset();
+    }
+
+    public void warn(Logger log, String message, Object... args) {
+        if (log.isWarnEnabled() && tryAcquire()) {
+            long skipped = takeSuppressed();
+            if (skipped > 0) {
+                log.warn(message + " (suppressed {} similar)", withSuppressed(args, skipped));
+            } else {
+                log.warn(message, args);
+            }
+        }
+    }
+
+    public void debug(Logger log, String message, Object... args) {
+        if (log.isDebugEnabled() && tryAcquire()) {
+            long skipped = takeSuppressed();
+            if (skipped > 0) {
+                log.debug(message + " (suppressed {} similar)", withSuppressed(args, skipped));
+            } else {
+                log.debug(message, args);
+            }
+        }
+    }
+
+    private static Object[] withSuppressed(Object[] args, long skipped) {
+        Object[] extended = Arrays.copyOf(args, args.length + 1);
+        extended[args.length] = skipped;
+        return extended;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.dto.card.CardBalanceDto;
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CardBalanceCacheTest {
+
+    private static final Long CARD_ID = 10L;
+    private static final Long OWNER_ID = 1L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+    private static final LocalDate EXPIRY = LocalDate.of(2028, 10, 20);
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardBalanceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CardBalanceCache(100, Duration.ofMinutes(10), meterRegistry,
+                Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    void get_countsHitsAndMisses() {
+        assertThat(cache.get(CARD_ID, OWNER_ID)).isEmpty();
+
+        cache.put(OWNER_ID, 1L, EXPIRY, balance("100"));
+
+        assertThat(cache.get(CARD_ID, OWNER_ID)).get()
+                .extracting(CardBalanceDto::getBalance)
+                .isEqualTo(new BigDecimal("100"));
+        assertThat(cache.get(CARD_ID, 2L)).isEmpty();
+        assertThat(counter("hit")).isEqualTo(1.0);
+        assertThat(counter("miss")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("card.balance.cache.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onCardChanged_writesThroughNewerBalance() {
+        cache.put(OWNER_ID, 1L, EXPIRY, balance("100"));
+
+        cache.onCardChanged(event(CardChangeType.BALANCE_CHANGED, "70", 2L));
+
+        CardBalanceDto cached = cache.get(CARD_ID, OWNER_ID).orElseThrow();
+        assertThat(cached.getBalance()).isEqualTo(new BigDecimal("70"));
+        assertThat(cached.getCardNumberMasked()).isEqualTo("**** **** **** 1234");
+    }
+
+    @Test
+    void put_ignoresStaleRead_afterNewerCommit() {
+        cache.onCardChanged(event(CardChangeType.BALANCE_CHANGED, "70", 2L));
+
+        cache.put(OWNER_ID, 1L, EXPIRY, balance("100"));
+
+        assertThat(cache.get(CARD_ID, OWNER_ID)).isEmpty();
+
+        cache.put(OWNER_ID, 2L, EXPIRY, balance("70"));
+
+        assertThat(cache.get(CARD_ID, OWNER_ID)).isPresent();
+    }
+
+    @Test
+    void onCardChanged_ignoresOutOfOrderEvent() {
+        cache.put(OWNER_ID, 3L, EXPIRY, balance("50"));
+
+        cache.onCardChanged(event(CardChangeType.BALANCE_CHANGED, "70", 2L));
+
+        assertThat(cache.get(CARD_ID, OWNER_ID).orElseThrow().getBalance()).isEqualTo(new BigDecimal("50"));
+    }
+
+    @Test
+    void getVersion_returnsCachedVersion_untilDeleted() {
+        assertThat(cache.getVersion(CARD_ID, OWNER_ID)).isEmpty();
+
+        cache.put(OWNER_ID, 4L, EXPIRY, balance("100"));
+
+        assertThat(cache.getVersion(CARD_ID, OWNER_ID)).contains(4L);
+
+        cache.onCardChanged(event(CardChangeType.DELETED, "100", 4L));
+
+        assertThat(cache.getVersion(CARD_ID, OWNER_ID)).isEmpty();
+    }
+
+    @Test
+    void onCardChanged_keepsDeletedCardOutOfCache() {
+        cache.put(OWNER_ID, 1L, EXPIRY, balance("100"));
+
+        cache.onCardChanged(event(CardChangeType.DELETED, "100", 1L));
+        cache.put(OWNER_ID, 1L, EXPIRY, balance("100"));
+
+        assertThat(cache.get(CARD_ID, OWNER_ID)).isEmpty();
+    }
+
+    @Test
+    void get_missesOnceCardHasLapsed() {
+        cache.put(OWNER_ID, 1L, TODAY, balance("100"));
+
+        assertThat(cache.get(CARD_ID, OWNER_ID)).isEmpty();
+        assertThat(cache.getVersion(CARD_ID, OWNER_ID)).isEmpty();
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("card.balance.cache.requests").tag("result", result).counter().count();
+    }
+
+    private CardBalanceDto balance(String amount) {
+        return new CardBalanceDto(CARD_ID, "**** **** **** 1234", new BigDecimal(amount));
+    }
+
+    private CardChangedEvent event(CardChangeType type, String balance, Long version) {
+        return new CardChangedEvent(type, CARD_ID, OWNER_ID, CardStatus.ACTIVE, new BigDecimal(balance), version);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.event.UserChangedEvent;
+import com.example.bankcards.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PrincipalCacheTest {
+
+    private final AuthenticatedUser alice = new AuthenticatedUser(1L, "alice", "{bcrypt}hash", true,
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(userDetailsService, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_loadsOnce_andDropsPassword() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+
+        AuthenticatedUser first = cache.get("alice").orElseThrow();
+        AuthenticatedUser second = cache.get("alice").orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(first.getPassword()).isEmpty();
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void get_returnsEmpty_whenUserDoesNotExist() {
+        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+
+        assertThat(cache.get("ghost")).isEmpty();
+    }
+
+    @Test
+    void onUserChanged_evictsUser_soNextLookupSeesNewRolesAndStatus() {
+        AuthenticatedUser demoted = new AuthenticatedUser(1L, "alice", "", false,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice).thenReturn(demoted);
+        cache.get("alice");
+
+        cache.onUserChanged(new UserChangedEvent(1L));
+        AuthenticatedUser reloaded = cache.get("alice").orElseThrow();
+
+        assertThat(reloaded.isEnabled()).isFalse();
+        assertThat(reloaded.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void onUserChanged_keepsOtherUsersCached() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        cache.get("alice");
+
+        cache.onUserChanged(new UserChangedEvent(2L));
+        cache.get("alice");
+
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+}
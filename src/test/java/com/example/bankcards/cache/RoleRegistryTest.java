@@ -0,0 +1,104 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.role.Role;
+import com.example.bankcards.exception.RoleNotFoundException;
+import com.example.bankcards.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleRegistryTest {
+
+    private static final Duration REFRESH_ON_MISS_INTERVAL = Duration.ofSeconds(30);
+
+    private final Role admin = new Role(1L, "ROLE_ADMIN");
+    private final Role user = new Role(2L, "ROLE_USER");
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private Clock clock;
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private RoleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenAnswer(inv -> now);
+        registry = new RoleRegistry(roleRepository, REFRESH_ON_MISS_INTERVAL, clock);
+    }
+
+    @Test
+    void lookups_areServedFromSnapshot_afterStartup() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin, user));
+        registry.onApplicationReady();
+
+        assertThat(registry.getByName("ROLE_USER")).isSameAs(user);
+        assertThat(registry.getAllByName(Set.of("ROLE_ADMIN", "ROLE_USER"))).containsExactlyInAnyOrder(admin, user);
+        assertThat(registry.getAllById(Set.of(1L))).containsExactly(admin);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getByName_reloadsOnce_whenRoleWasAddedAfterStartup() {
+        Role auditor = new Role(3L, "ROLE_AUDITOR");
+        when(roleRepository.findAll()).thenReturn(List.of(admin, user)).thenReturn(List.of(admin, user, auditor));
+        registry.onApplicationReady();
+        now = now.plus(REFRESH_ON_MISS_INTERVAL);
+
+        assertThat(registry.getByName("ROLE_AUDITOR")).isSameAs(auditor);
+        assertThat(registry.getAllById(Set.of(3L))).containsExactly(auditor);
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getByName_reloadsAtMostOncePerInterval_whenRoleKeepsMissing() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin, user));
+        registry.onApplicationReady();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> registry.getByName("ROLE_ROOT")).isInstanceOf(RoleNotFoundException.class);
+        }
+        verify(roleRepository, times(1)).findAll();
+
+        now = now.plus(REFRESH_ON_MISS_INTERVAL);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> registry.getByName("ROLE_ROOT")).isInstanceOf(RoleNotFoundException.class);
+        }
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getAllByName_throwsWithMissingNames_whenRoleDoesNotExist() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin, user));
+
+        assertThatThrownBy(() -> registry.getAllByName(Set.of("ROLE_ADMIN", "ROLE_ROOT")))
+                .isInstanceOf(RoleNotFoundException.class)
+                .hasMessageContaining("ROLE_ROOT")
+                .hasMessageNotContaining("ROLE_ADMIN");
+    }
+
+    @Test
+    void getAllById_skipsUnknownIds_withoutReloadingFreshSnapshot() {
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+
+        assertThat(registry.getAllById(Set.of(1L, 9L))).containsExactly(admin);
+        verify(roleRepository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.bankcards.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private long now = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_rejectsOverLimit_andCountsRejections() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void release_growsLimitAdditively_whileLatencyStaysNearBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, 2.0, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            saturate(limiter, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void release_growsLimitByAboutOnePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 400, 2.0, 0.9);
+
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isBetween(21, 30);
+    }
+
+    @Test
+    void release_keepsShedding_whileLatencyStaysHigh() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 400, 2.0, 0.9);
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, FAST);
+        }
+        int peak = limiter.getLimit();
+
+        for (int i = 0; i < 300; i++) {
+            saturate(limiter, FAST * 20);
+            assertThat(limiter.getLimit()).isLessThan(peak);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void release_adaptsBaseline_toSustainedLatencyOverSeveralWindows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 400, 2.0, 0.9);
+        saturate(limiter, FAST);
+        for (int i = 0; i < 300; i++) {
+            saturate(limiter, FAST * 20);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 300; i++) {
+            saturate(limiter, FAST * 20);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+    }
+
+    @Test
+    void release_doesNotGrowLimit_whenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            request(limiter, FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_backsOffMultiplicatively_whenLatencyExceedsTolerance() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 2.0, 0.5);
+        request(limiter, FAST, false);
+
+        request(limiter, SLOW, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 5; i++) {
+            request(limiter, SLOW, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void release_backsOffOnce_forRequestsAdmittedBeforeThePreviousBackoff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 2.0, 0.5);
+        request(limiter, FAST, false);
+        long started = now;
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            limiter.release(started, started + SLOW + i, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void release_backsOff_whenRequestWasShedDownstream() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0, 0.5);
+
+        request(limiter, FAST, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void constructor_rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(10, 0, 10, 2.0, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void request(AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean overloaded) {
+        assertThat(limiter.tryAcquire()).isTrue();
+        long started = now;
+        now += rttNanos;
+        limiter.release(started, now, overloaded);
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        long started = now;
+        now += rttNanos;
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(started, now, false);
+        }
+    }
+}
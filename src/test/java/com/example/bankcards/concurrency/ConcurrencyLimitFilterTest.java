@@ -0,0 +1,123 @@
+package com.example.bankcards.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("concurrency.limit.transfers.initial", "1")
+                .withProperty("concurrency.limit.transfers.min", "1");
+        filter = new ConcurrencyLimitFilter(environment, meterRegistry, 2.0, 0.9, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void groupsEndpoints_andLeavesStreamAndActuatorUnlimited() {
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("POST", "/api/cards/transfer")))
+                .isEqualTo(EndpointGroup.TRANSFERS);
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("GET", "/api/cards/10/balance")))
+                .isEqualTo(EndpointGroup.READS);
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("POST", "/api/auth/login")))
+                .isEqualTo(EndpointGroup.AUTH);
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("DELETE", "/api/admin/users/1")))
+                .isEqualTo(EndpointGroup.ADMIN);
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("GET", "/api/cards/stream"))).isNull();
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("GET", "/api/admin/cards/export"))).isNull();
+        assertThat(EndpointGroup.of(new MockHttpServletRequest("GET", "/actuator/health"))).isNull();
+    }
+
+    @Test
+    void doFilter_rejectsWith503AndRetryAfter_whenGroupIsAtLimit() throws Exception {
+        MockHttpServletRequest inFlight = transfer();
+        inFlight.setAsyncSupported(true);
+        filter.doFilter(inFlight, new MockHttpServletResponse(), new MockFilterChain(asyncServlet()));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(transfer(), rejected, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("http.concurrency.rejected").tag("group", "transfers").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("http.concurrency.in-flight").tag("group", "transfers").gauge().value())
+                .isEqualTo(1.0);
+
+        ((MockAsyncContext) inFlight.getAsyncContext()).complete();
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(transfer(), accepted, new MockFilterChain());
+
+        assertThat(accepted.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.concurrency.in-flight").tag("group", "transfers").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void doFilter_doesNotLimitUngroupedRequests() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(meterRegistry.get("http.concurrency.limit").tag("group", "reads").gauge().value())
+                .isEqualTo(20.0);
+    }
+
+    @Test
+    void doFilter_shrinksLimit_whenDownstreamSheds() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(read(), new MockHttpServletResponse(), new MockFilterChain(statusServlet(503)));
+        }
+
+        assertThat(filter.limiter(EndpointGroup.READS).getLimit()).isLessThan(20);
+        assertThat(filter.limiter(EndpointGroup.READS).getInFlight()).isZero();
+    }
+
+    private MockHttpServletRequest transfer() {
+        return new MockHttpServletRequest("POST", "/api/cards/transfer");
+    }
+
+    private MockHttpServletRequest read() {
+        return new MockHttpServletRequest("GET", "/api/cards/10/balance");
+    }
+
+    private HttpServlet asyncServlet() {
+        return new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+            }
+        };
+    }
+
+    private HttpServlet statusServlet(int status) {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(status);
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.user.UserListRow;
+import com.example.bankcards.search.UserSearch;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.PreparedStatement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.BankRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersJjwtImplementationsLoadedByName() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersQueryProjectionConstructors() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(UserListRow.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersSqlStatsAndLazyInjectionProxies() {
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies()
+                .forInterfaces(AopProxyUtils.completeJdkProxyInterfaces(UserSearch.class)))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersChangelogResources() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/db.changelog-master.yaml"))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.config;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatsConfigTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final BeanPostProcessor postProcessor = SqlStatsConfig.sqlStatsDataSourcePostProcessor(beanFactory, false);
+
+    @Test
+    void proxiesPrimaryDataSourceBean() {
+        Object bean = postProcessor.postProcessAfterInitialization(new JdbcDataSource(), SqlStatsConfig.PRIMARY_DATA_SOURCE);
+
+        assertThat(bean).isInstanceOf(ProxyDataSource.class);
+    }
+
+    @Test
+    void proxiesDataSourceMarkedPrimary() {
+        RootBeanDefinition definition = new RootBeanDefinition(JdbcDataSource.class);
+        definition.setPrimary(true);
+        beanFactory.registerBeanDefinition("mainDataSource", definition);
+
+        Object bean = postProcessor.postProcessAfterInitialization(new JdbcDataSource(), "mainDataSource");
+
+        assertThat(bean).isInstanceOf(ProxyDataSource.class);
+    }
+
+    @Test
+    void leavesOtherDataSourcesUnwrapped() {
+        beanFactory.registerBeanDefinition("replicaDataSource", new RootBeanDefinition(JdbcDataSource.class));
+        DataSource replica = new JdbcDataSource();
+
+        assertThat(postProcessor.postProcessAfterInitialization(replica, "replicaDataSource")).isSameAs(replica);
+    }
+
+    @Test
+    void leavesResultSetsUnproxied_byDefault() throws SQLException {
+        DataSource dataSource = (DataSource) postProcessor.postProcessAfterInitialization(h2(), SqlStatsConfig.PRIMARY_DATA_SOURCE);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select 1")) {
+            assertThat(statement).isInstanceOf(ProxyJdbcObject.class);
+            assertThat(resultSet).isNotInstanceOf(ProxyJdbcObject.class);
+        }
+    }
+
+    @Test
+    void proxiesResultSets_whenEnabled() throws SQLException {
+        DataSource dataSource = (DataSource) SqlStatsConfig.sqlStatsDataSourcePostProcessor(beanFactory, true)
+                .postProcessAfterInitialization(h2(), SqlStatsConfig.PRIMARY_DATA_SOURCE);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select 1")) {
+            assertThat(resultSet).isInstanceOf(ProxyJdbcObject.class);
+        }
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-stats-config");
+        return h2;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.config;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtual-threads;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.liquibase.parameters.admin.password.bcrypt={noop}disabled",
+        "spring.jpa.show-sql=false",
+        "jwt.secret.base64=dmlydHVhbC10aHJlYWRzLXZpcnR1YWwtdGhyZWFkcy12aXJ0",
+        "card.encryption.key.base64=MDEyMzQ1Njc4OWFiY2RlZg==",
+        "outbox.relay.enabled=false",
+        "user.search.type=in-memory",
+        "spring.threads.virtual.enabled=true"
+})
+public class VirtualThreadsConfigTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    void tomcatConnector_runsRequestsOnVirtualThreads() throws Exception {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        ExecutorService executor = (ExecutorService) connector.getProtocolHandler().getExecutor();
+
+        Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        assertVirtual(thread, "http-");
+    }
+
+    @Test
+    void applicationTaskExecutor_runsTasksOnVirtualThreads() throws Exception {
+        Thread thread = applicationTaskExecutor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        assertVirtual(thread, "task-");
+    }
+
+    @Test
+    void taskScheduler_runsTasksOnVirtualThreads() throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        taskScheduler.execute(() -> thread.complete(Thread.currentThread()));
+
+        assertVirtual(thread.get(5, TimeUnit.SECONDS), "scheduling-");
+    }
+
+    private static void assertVirtual(Thread thread, String namePrefix) {
+        assertThat(thread.getName()).startsWith(namePrefix);
+        assertThat(thread.getClass().getSimpleName()).isEqualTo("VirtualThread");
+    }
+}
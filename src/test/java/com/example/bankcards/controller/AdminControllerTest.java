@@ -3,17 +3,24 @@ package com.example.bankcards.controller;
 import com.example.bankcards.config.SecurityConfig;
 import com.example.bankcards.config.TestSecurityConfig;
 import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.dto.card.CardExportFormat;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
 import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.dto.user.UserKeysetPage;
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.exception.InvalidPageRequestException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.exception.UserSearchTimeoutException;
 import com.example.bankcards.exception.UsernameAlreadyExistsException;
 import com.example.bankcards.security.DbUserDetailsService;
 import com.example.bankcards.security.JwtAuthenticationEntryPoint;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.CardExportService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,19 +32,28 @@ import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -49,7 +65,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthenticationFilter.class)
 )
 @AutoConfigureMockMvc
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, SimpleMeterRegistry.class})
 public class AdminControllerTest {
 
     @Autowired
@@ -64,6 +80,9 @@ public class AdminControllerTest {
     @MockBean
     private CardService cardService;
 
+    @MockBean
+    private CardExportService cardExportService;
+
     private UserDto userDto;
     private CardDto cardDto;
 
@@ -205,6 +224,128 @@ public class AdminControllerTest {
                 jsonPath("$.content[0].ownerUsername").value("user"));
     }
 
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void listUsers_returnsPageWithTotals_byDefault() throws Exception {
+        when(userService.listUsers(0, 20, "username")).thenReturn(new PageImpl<>(List.of(userDto)));
+
+        performGet("/api/admin/users",
+                status().isOk(),
+                jsonPath("$.content[0].username").value("user"),
+                jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void listUsers_returnsSlice_whenSliceRequested() throws Exception {
+        when(userService.listUsersSlice(0, 20, "username"))
+                .thenReturn(new SliceImpl<>(List.of(userDto), PageRequest.of(0, 20), false));
+
+        performGet("/api/admin/users?slice=true",
+                status().isOk(),
+                jsonPath("$.content[0].username").value("user"),
+                jsonPath("$.last").value(true),
+                jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void listUsersKeyset_returnsContentAndNextCursor() throws Exception {
+        when(userService.listUsersKeyset(2, "createdAt", "abc", true))
+                .thenReturn(new UserKeysetPage(List.of(userDto), 2, "next", false));
+
+        performGet("/api/admin/users/keyset?size=2&sortBy=createdAt&cursor=abc&withCardCount=true",
+                status().isOk(),
+                jsonPath("$.content[0].username").value("user"),
+                jsonPath("$.nextCursor").value("next"),
+                jsonPath("$.last").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void listUsers_returnsBadRequest_whenSortFieldIsNotAllowed() throws Exception {
+        when(userService.listUsers(0, 20, "password"))
+                .thenThrow(new InvalidPageRequestException("Unsupported sortBy=password"));
+
+        performGet("/api/admin/users?sortBy=password",
+                status().isBadRequest(),
+                jsonPath("$.message").value("Unsupported sortBy=password"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void searchUsers_returnsRankedHits() throws Exception {
+        when(userService.searchUsers("ivan", 10))
+                .thenReturn(List.of(new UserSearchHit(1L, "ivanov", true, true, 1.0)));
+
+        performGet("/api/admin/users/search?q=ivan",
+                status().isOk(),
+                jsonPath("$[0].username").value("ivanov"),
+                jsonPath("$[0].prefixMatch").value(true));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void searchUsers_returnsServiceUnavailable_whenSearchTimesOut() throws Exception {
+        when(userService.searchUsers("ivan", 10)).thenThrow(new UserSearchTimeoutException("ivan"));
+
+        performGet("/api/admin/users/search?q=ivan", status().isServiceUnavailable());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void exportCards_streamsNdjson_byDefault() throws Exception {
+        when(cardExportService.exportCards(eq(CardExportFormat.NDJSON), any(OutputStream.class)))
+                .thenAnswer(inv -> {
+                    inv.getArgument(1, OutputStream.class).write("{\"id\":10}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/cards/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(2).toMillis());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"cards.ndjson\""))
+                .andExpect(content().string("{\"id\":10}\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void exportCards_compressesCsv_whenGzipRequested() throws Exception {
+        when(cardExportService.exportCards(eq(CardExportFormat.CSV), any(OutputStream.class)))
+                .thenAnswer(inv -> {
+                    inv.getArgument(1, OutputStream.class).write("id\n10\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/cards/export")
+                        .param("format", "CSV")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id\n10\n");
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void exportCards_returns403_forNonAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/cards/export"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = {"USER"})
     void getUserById_returns403_forNonAdmin() throws Exception {
@@ -1,12 +1,18 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.card.CardBalanceDto;
 import com.example.bankcards.dto.card.CardDto;
 import com.example.bankcards.dto.card.TransferDto;
 import com.example.bankcards.dto.card.TransferRequest;
 import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.WithAuthenticatedUser;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardStreamService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,15 +21,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.math.BigDecimal;
@@ -31,6 +40,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -42,6 +52,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 type = FilterType.ASSIGNABLE_TYPE,
                 classes = JwtAuthenticationFilter.class))
 @AutoConfigureMockMvc
+@Import(SimpleMeterRegistry.class)
 public class CardControllerTest {
 
     @Autowired
@@ -50,9 +61,15 @@ public class CardControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private CardService cardService;
 
+    @MockBean
+    private CardStreamService cardStreamService;
+
     private CardDto cardDto;
     private TransferDto transferDto;
 
@@ -77,10 +94,10 @@ public class CardControllerTest {
     }
 
     @Test
-    @WithMockUser(roles = {"USER"})
+    @WithAuthenticatedUser
     void listUserCards_returns200() throws Exception {
         Page<CardDto> page = new PageImpl<>(List.of(cardDto));
-        when(cardService.listUserCards(any(UserDetails.class), any(Pageable.class))).thenReturn(page);
+        when(cardService.listUserCards(any(AuthenticatedUser.class), any(Pageable.class))).thenReturn(page);
 
         performGet("/api/cards/user",
                 status().isOk(),
@@ -89,9 +106,94 @@ public class CardControllerTest {
     }
 
     @Test
-    @WithMockUser(roles = {"USER"})
+    @WithAuthenticatedUser
+    void listUserCards_returnsSliceWithoutTotals_whenSliceRequested() throws Exception {
+        when(cardService.listUserCardsSlice(any(AuthenticatedUser.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(cardDto), PageRequest.of(0, 1), true));
+
+        performGet("/api/cards/user?slice=true&size=1",
+                status().isOk(),
+                jsonPath("$.content[0].id").value(10),
+                jsonPath("$.last").value(false),
+                jsonPath("$.totalElements").doesNotExist());
+        verify(cardService, never()).listUserCards(any(AuthenticatedUser.class), any(Pageable.class));
+    }
+
+    @Test
+    @WithAuthenticatedUser
+    void listUserCards_returnsETag() throws Exception {
+        when(cardService.getUserCardsETag(any(AuthenticatedUser.class), any(Pageable.class), eq(false)))
+                .thenReturn("abc123");
+        when(cardService.listUserCards(any(AuthenticatedUser.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(cardDto)));
+
+        performGet("/api/cards/user",
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"abc123\""),
+                header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"),
+                jsonPath("$.content[0].id").value(10));
+    }
+
+    @Test
+    @WithAuthenticatedUser
+    void listUserCards_returns304_whenETagMatches() throws Exception {
+        when(cardService.getUserCardsETag(any(AuthenticatedUser.class), any(Pageable.class), eq(false)))
+                .thenReturn("abc123");
+
+        mockMvc.perform(get("/api/cards/user").header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(content().string(""));
+        verify(cardService, never()).listUserCards(any(AuthenticatedUser.class), any(Pageable.class));
+    }
+
+    @Test
+    @WithAuthenticatedUser
+    void getBalance_returnsETag() throws Exception {
+        when(cardService.getBalanceETag(any(AuthenticatedUser.class), eq(10L))).thenReturn("10-3");
+        when(cardService.getBalance(any(AuthenticatedUser.class), eq(10L)))
+                .thenReturn(new CardBalanceDto(10L, "**** **** **** 5678", BigDecimal.valueOf(1000)));
+
+        performGet("/api/cards/10/balance",
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"10-3\""),
+                jsonPath("$.balance").value(1000));
+    }
+
+    @Test
+    @WithAuthenticatedUser
+    void getBalance_returns304_withoutLoadingBalance_whenETagMatches() throws Exception {
+        when(cardService.getBalanceETag(any(AuthenticatedUser.class), eq(10L))).thenReturn("10-3");
+
+        mockMvc.perform(get("/api/cards/10/balance").header(HttpHeaders.IF_NONE_MATCH, "\"10-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(cardService, never()).getBalance(any(AuthenticatedUser.class), anyLong());
+    }
+
+    @Test
+    @WithAuthenticatedUser
+    void getBalance_returns404_whenCardNotFound() throws Exception {
+        when(cardService.getBalanceETag(any(AuthenticatedUser.class), eq(99L)))
+                .thenThrow(new CardNotFoundException(99L));
+
+        performGet("/api/cards/99/balance", status().isNotFound());
+    }
+
+    @Test
+    @WithAuthenticatedUser
+    void streamCardChanges_startsEventStream() throws Exception {
+        when(cardStreamService.subscribe(any(AuthenticatedUser.class))).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/cards/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(cardStreamService).subscribe(argThat(principal -> principal.getId().equals(1L)));
+    }
+
+    @Test
+    @WithAuthenticatedUser
     void requestBlockCard_returns200() throws Exception {
-        when(cardService.requestBlockCard(any(UserDetails.class), eq(10L))).thenReturn(cardDto);
+        when(cardService.requestBlockCard(any(AuthenticatedUser.class), eq(10L))).thenReturn(cardDto);
 
         performPost("/api/cards/10/block-request", null,
                 status().isOk(),
@@ -100,22 +202,26 @@ public class CardControllerTest {
     }
 
     @Test
-    @WithMockUser(roles = {"USER"})
+    @WithAuthenticatedUser
     void requestBlockCard_returns404_whenNotFound() throws Exception {
-        when(cardService.requestBlockCard(any(UserDetails.class), eq(99L)))
+        when(cardService.requestBlockCard(any(AuthenticatedUser.class), eq(99L)))
                 .thenThrow(new CardNotFoundException(99L));
 
         performPost("/api/cards/99/block-request", null, status().isNotFound());
+        assertThat(meterRegistry.get("api.exceptions")
+                .tag("exception", "CardNotFoundException")
+                .tag("status", "404")
+                .counter().count()).isEqualTo(1.0);
     }
 
     @Test
-    @WithMockUser(roles = {"USER"})
+    @WithAuthenticatedUser
     void transferBetweenCards_returns200() throws Exception {
         TransferRequest request = new TransferRequest(10L,
                 20L, BigDecimal.valueOf(200),
                 "Test transfer",
                 Instant.now());
-        when(cardService.transferBetweenCards(any(UserDetails.class), any(TransferRequest.class)))
+        when(cardService.transferBetweenCards(any(AuthenticatedUser.class), any(TransferRequest.class)))
                 .thenReturn(transferDto);
 
         performPost("/api/cards/transfer", request,
@@ -127,7 +233,7 @@ public class CardControllerTest {
     }
 
     @Test
-    @WithMockUser(roles = {"USER"})
+    @WithAuthenticatedUser
     void transferBetweenCards_returns400_whenInvalidRequest() throws Exception {
         TransferRequest invalid = new TransferRequest(null,
                 null,
@@ -139,14 +245,14 @@ public class CardControllerTest {
     }
 
     @Test
-    @WithMockUser(roles = {"USER"})
+    @WithAuthenticatedUser
     void transferBetweenCards_returns404_whenCardNotFound() throws Exception {
         TransferRequest request = new TransferRequest(10L,
                 99L,
                 BigDecimal.valueOf(200),
                 "fail",
                 Instant.now());
-        when(cardService.transferBetweenCards(any(UserDetails.class), any(TransferRequest.class)))
+        when(cardService.transferBetweenCards(any(AuthenticatedUser.class), any(TransferRequest.class)))
                 .thenThrow(new CardNotFoundException(99L));
 
         performPost("/api/cards/transfer", request, status().isNotFound());
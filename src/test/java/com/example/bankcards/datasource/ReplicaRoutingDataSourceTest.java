@@ -0,0 +1,149 @@
+package com.example.bankcards.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplicas_roundRobin_andWritesToPrimary() {
+        start(Duration.ZERO, database("replica-a"), database("replica-b"));
+
+        assertThat(node(readWrite)).isEqualTo("primary");
+        assertThat(List.of(node(readOnly), node(readOnly), node(readOnly), node(readOnly)))
+                .containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+        assertThat(routed("replica-1", "read-only")).isEqualTo(2.0);
+        assertThat(routed("primary", "write")).isEqualTo(1.0);
+    }
+
+    @Test
+    void readsAfterWrite_stayOnPrimary_forThatUser_withinWindow() throws InterruptedException {
+        start(Duration.ofMillis(300), database("replica-a"));
+
+        authenticate("alice");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertThat(node(readOnly)).isEqualTo("primary");
+        authenticate("bob");
+        assertThat(node(readOnly)).isEqualTo("replica-a");
+
+        Thread.sleep(400);
+        authenticate("alice");
+        assertThat(node(readOnly)).isEqualTo("replica-a");
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(1.0);
+    }
+
+    @Test
+    void unhealthyReplicas_areSkipped_andPrimaryServesReadsWhenNoneIsLeft() {
+        start(Duration.ZERO, "jdbc:h2:tcp://localhost:1/unreachable", database("replica-b"));
+
+        assertThat(List.of(node(readOnly), node(readOnly))).containsOnly("replica-b");
+        assertThat(meterRegistry.get("datasource.replica.healthy").tag("route", "replica-1").gauge().value())
+                .isZero();
+
+        dataSource.close();
+        start(Duration.ZERO, "jdbc:h2:tcp://localhost:1/unreachable");
+
+        assertThat(node(readOnly)).isEqualTo("primary");
+        assertThat(routed("primary", "no-healthy-replica")).isEqualTo(1.0);
+    }
+
+    @Test
+    void eachRoute_exposesItsOwnPoolMetrics() {
+        start(Duration.ZERO, database("replica-a"));
+
+        node(readWrite);
+        node(readOnly);
+
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "replica-1").gauge()).isNotNull();
+    }
+
+    private void start(Duration readYourWritesWindow, String... replicaUrls) {
+        MicrometerMetricsTrackerFactory metricsTracker = new MicrometerMetricsTrackerFactory(meterRegistry);
+        HikariDataSource primary = pool("primary", database("primary"), metricsTracker);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            replicas.add(pool("replica-" + (replicas.size() + 1), url, metricsTracker));
+        }
+        dataSource = new ReplicaRoutingDataSource(primary, replicas,
+                new ReadYourWritesTracker(readYourWritesWindow, 100),
+                () -> SecurityContextHolder.getContext().getAuthentication() == null
+                        ? null
+                        : SecurityContextHolder.getContext().getAuthentication().getName(),
+                Duration.ofMinutes(1), meterRegistry);
+        dataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private double routed(String route, String reason) {
+        return meterRegistry.get("datasource.routing.connections")
+                .tag("route", route)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+    private static HikariDataSource pool(String name, String url, MicrometerMetricsTrackerFactory metricsTracker) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setConnectionTimeout(250);
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(metricsTracker);
+        return pool;
+    }
+
+    private static String database(String node) {
+        String url = "jdbc:h2:mem:" + node + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        JdbcTemplate setup = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        setup.execute("CREATE TABLE node (name VARCHAR(20))");
+        setup.update("INSERT INTO node (name) VALUES (?)", node);
+        return url;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.migration;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SchemaVersionCheckTest {
+
+    private static final String CHANGE_LOG = "classpath:db/migration/db.changelog-master.yaml";
+
+    private final DataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:schema-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "sa", "");
+
+    private final SchemaVersionCheck check = new SchemaVersionCheck(dataSource, CHANGE_LOG, "databasechangelog");
+
+    @Test
+    void passes_whenAllChangeSetsForDatabaseAreApplied() throws Exception {
+        migrate();
+
+        assertThat(check.pendingChangeSets()).isEmpty();
+        check.afterPropertiesSet();
+    }
+
+    @Test
+    void fails_listingChangeSetsMissingFromChangeLogTable() throws Exception {
+        migrate();
+        new JdbcTemplate(dataSource).update("delete from databasechangelog where id = '0006-users-created-at-index'");
+
+        assertThat(check.pendingChangeSets()).containsExactly("0006-users-created-at-index::liquibase");
+        assertThatThrownBy(check::afterPropertiesSet)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("0006-users-created-at-index::liquibase");
+    }
+
+    @Test
+    void fails_whenDatabaseWasNeverMigrated() {
+        assertThatThrownBy(check::afterPropertiesSet)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("has not been migrated");
+    }
+
+    private void migrate() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGE_LOG);
+        liquibase.setChangeLogParameters(Map.of("admin.password.bcrypt", "{noop}disabled"));
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+}
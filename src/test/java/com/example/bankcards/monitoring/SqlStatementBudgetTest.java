@@ -0,0 +1,220 @@
+package com.example.bankcards.monitoring;
+
+import com.example.bankcards.cache.PrincipalCache;
+import com.example.bankcards.cache.RoleRegistry;
+import com.example.bankcards.entity.card.Card;
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.entity.user.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JwtService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.liquibase.parameters.admin.password.bcrypt={noop}disabled",
+        "spring.jpa.show-sql=false",
+        "jwt.secret.base64=c3FsLWJ1ZGdldC1zcWwtYnVkZ2V0LXNxbC1idWRnZXQtc3Fs",
+        "card.encryption.key.base64=MDEyMzQ1Njc4OWFiY2RlZg==",
+        "outbox.relay.enabled=false",
+        "sql.stats.enabled=true",
+        "user.search.type=in-memory"
+})
+@AutoConfigureMockMvc
+public class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Test
+    void getUserById_loadsUserWithRolesInOneStatement() throws Exception {
+        User user = user("ROLE_USER");
+
+        assertThat(statements(HttpMethod.GET, "/api/admin/users/{id}", user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void getUserByUsername_loadsUserWithRolesInOneStatement() throws Exception {
+        User user = user("ROLE_USER");
+
+        assertThat(statements(HttpMethod.GET, "/api/admin/users/username/{username}", user.getUsername()))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void listUsers_batchesRoleLoading() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            user("ROLE_USER");
+        }
+
+        assertThat(statements(HttpMethod.GET, "/api/admin/users", null)).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void listUsersKeyset_countsCardsAndResolvesRolesWithoutExtraQueriesPerUser() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            user("ROLE_USER");
+        }
+
+        assertThat(statements(HttpMethod.GET, "/api/admin/users/keyset?sortBy=createdAt&withCardCount=true", null))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void searchUsers_runsOneSearchStatement() throws Exception {
+        User user = user("ROLE_USER");
+
+        assertThat(statements(HttpMethod.GET, "/api/admin/users/search?q=" + user.getUsername(), null))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void updateUserRoles_resolvesRolesWithoutQueryingRoleTable() throws Exception {
+        User user = user("ROLE_USER");
+        String body = "{\"username\":\"" + user.getUsername()
+                + "\",\"password\":\"Passw0rd!23\",\"roles\":[\"ROLE_ADMIN\"]}";
+
+        assertThat(statements(HttpMethod.PATCH, "/api/admin/users/{id}", user.getId(), body))
+                .isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void deleteUser_bulkDeletesCardsAndUser() throws Exception {
+        User user = user("ROLE_USER");
+        for (int i = 0; i < 3; i++) {
+            statements(HttpMethod.POST, "/api/admin/cards", null, cardRequest(user));
+        }
+
+        List<Card> cards = cardRepository.findByOwnerId(user.getId(), Pageable.unpaged()).getContent();
+
+        assertThat(statements(HttpMethod.DELETE, "/api/admin/users/{id}", user.getId())).isEqualTo(4 + cards.size());
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+        assertThat(cardRepository.findByOwnerId(user.getId(), Pageable.unpaged())).isEmpty();
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> "DELETED".equals(event.getEventType()))
+                .extracting(OutboxEvent::getAggregateId, OutboxEvent::getAggregateVersion)
+                .containsExactlyInAnyOrderElementsOf(cards.stream()
+                        .map(card -> tuple(card.getId(), card.getVersion() + 1))
+                        .toList());
+    }
+
+    @Test
+    void createCard_loadsOwnerWithoutRoles() throws Exception {
+        User user = user("ROLE_USER");
+
+        assertThat(statements(HttpMethod.POST, "/api/admin/cards", null, cardRequest(user))).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void userCards_authenticatesFromCachedPrincipalWithoutQuery() throws Exception {
+        User user = user("ROLE_USER");
+
+        assertThat(statements(HttpMethod.GET, "/api/cards/user", null, null, token(user))).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void userCards_rejectsToken_afterUserIsDeleted() throws Exception {
+        User user = user("ROLE_USER");
+        String token = token(user);
+        statements(HttpMethod.GET, "/api/cards/user", null, null, token);
+
+        statements(HttpMethod.DELETE, "/api/admin/users/{id}", user.getId());
+
+        mockMvc.perform(request(HttpMethod.GET, "/api/cards/user").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private int statements(HttpMethod method, String uri, Object variable) throws Exception {
+        return statements(method, uri, variable, null);
+    }
+
+    private int statements(HttpMethod method, String uri, Object variable, String body) throws Exception {
+        return statements(method, uri, variable, body, jwtService.generateToken(
+                userRepository.findByUsername("admin").orElseThrow().getId(), "admin", List.of("ROLE_ADMIN")));
+    }
+
+    private int statements(HttpMethod method, String uri, Object variable, String body, String token)
+            throws Exception {
+        String pattern = uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri;
+        principalCache.get(jwtService.parseClaims(token).orElseThrow().getSubject());
+        double before = recorded(method, pattern);
+        MockHttpServletRequestBuilder request = variable == null ? request(method, uri) : request(method, uri, variable);
+        request.header("Authorization", "Bearer " + token);
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        return (int) (recorded(method, pattern) - before);
+    }
+
+    private double recorded(HttpMethod method, String uri) {
+        DistributionSummary summary = meterRegistry.find("sql.request.statements")
+                .tags("method", method.name(), "uri", uri)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private User user(String role) {
+        return userRepository.save(User.builder()
+                .username("user-" + UUID.randomUUID().toString().substring(0, 8))
+                .password("{noop}password")
+                .enabled(true)
+                .createdAt(Instant.now())
+                .roles(Set.of(roleRegistry.getByName(role)))
+                .build());
+    }
+
+    private String token(User user) {
+        return jwtService.generateToken(user.getId(), user.getUsername(), List.of("ROLE_USER"));
+    }
+
+    private String cardRequest(User user) {
+        return "{\"ownerId\":" + user.getId() + ",\"expireDate\":\"" + LocalDate.now().plusYears(3) + "\"}";
+    }
+}
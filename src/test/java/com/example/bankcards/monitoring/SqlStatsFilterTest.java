@@ -0,0 +1,146 @@
+package com.example.bankcards.monitoring;
+
+import com.example.bankcards.config.SqlStatsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1");
+        dataSource = (DataSource) SqlStatsConfig.sqlStatsDataSourcePostProcessor(new DefaultListableBeanFactory(), true)
+                .postProcessAfterInitialization(h2, "dataSource");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists items(id int primary key)");
+            statement.execute("merge into items key(id) values (1), (2), (3)");
+        }
+    }
+
+    @Test
+    void doFilter_recordsStatementsRowsAndTimePerEndpoint() throws Exception {
+        MockHttpServletResponse response = perform(new SqlStatsFilter(meterRegistry, 20, Duration.ofMinutes(1), true), 2);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("sql.request.statements").tag("uri", "/api/items/{id}").summary().totalAmount())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("sql.request.rows").tag("method", "GET").summary().totalAmount())
+                .isEqualTo(6.0);
+        assertThat(meterRegistry.get("sql.request.time").tag("uri", "/api/items/{id}").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("sql.request.budget.exceeded").counter()).isNull();
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    @Test
+    void doFilter_skipsRowSummary_whenResultSetsAreNotCounted() throws Exception {
+        perform(new SqlStatsFilter(meterRegistry, 20, Duration.ofMinutes(1), false), 2);
+
+        assertThat(meterRegistry.get("sql.request.statements").tag("uri", "/api/items/{id}").summary().totalAmount())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.find("sql.request.rows").summary()).isNull();
+    }
+
+    @Test
+    void doFilter_countsBudgetOverruns() throws Exception {
+        SqlStatsFilter filter = new SqlStatsFilter(meterRegistry, 2, Duration.ofMinutes(1), true);
+
+        perform(filter, 3);
+        perform(filter, 3);
+        perform(filter, 1);
+
+        assertThat(meterRegistry.get("sql.request.budget.exceeded").tag("uri", "/api/items/{id}").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void doFilter_recordsOnce_whenRequestCompletesInAsyncDispatch() throws Exception {
+        SqlStatsFilter filter = new SqlStatsFilter(meterRegistry, 20, Duration.ofMinutes(1), true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/1");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet(1, true)));
+
+        assertThat(meterRegistry.find("sql.request.statements").summary()).isNull();
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        request.setAsyncStarted(false);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet(2, false)));
+
+        assertThat(meterRegistry.get("sql.request.statements").tag("uri", "/api/items/{id}").summary().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("sql.request.statements").tag("uri", "/api/items/{id}").summary().totalAmount())
+                .isEqualTo(3.0);
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    @Test
+    void queriesOutsideRequest_areNotCounted() throws Exception {
+        AtomicInteger rows = new AtomicInteger();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select id from items")) {
+            while (resultSet.next()) {
+                rows.incrementAndGet();
+            }
+        }
+
+        assertThat(rows).hasValue(3);
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    private MockHttpServletResponse perform(SqlStatsFilter filter, int queries) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(servlet(queries, false)));
+        return response;
+    }
+
+    private HttpServlet servlet(int queries, boolean startAsync) {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items/{id}");
+                try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                    for (int i = 0; i < queries; i++) {
+                        try (ResultSet resultSet = statement.executeQuery("select id from items")) {
+                            while (resultSet.next()) {
+                                resultSet.getInt(1);
+                            }
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (startAsync) {
+                    req.startAsync();
+                }
+            }
+        };
+    }
+}
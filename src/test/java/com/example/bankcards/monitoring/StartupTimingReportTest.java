@@ -0,0 +1,41 @@
+package com.example.bankcards.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupTimingReportTest {
+
+    @Test
+    void slowestBeans_rankBySelfTime_excludingNestedDependencies() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(64);
+
+        StartupStep controller = bean(startup, "adminController");
+        StartupStep service = bean(startup, "userServiceImpl");
+        Thread.sleep(200);
+        service.end();
+        controller.end();
+        StartupStep cache = bean(startup, "cardBalanceCache");
+        Thread.sleep(100);
+        cache.end();
+        startup.start("spring.context.refresh").end();
+
+        List<StartupTimingReport.BeanInitTime> slowest =
+                StartupTimingReport.slowestBeans(startup.getBufferedTimeline(), 2);
+
+        assertThat(slowest).extracting(StartupTimingReport.BeanInitTime::beanName)
+                .containsExactly("userServiceImpl", "cardBalanceCache");
+        StartupTimingReport.BeanInitTime all = StartupTimingReport.slowestBeans(startup.getBufferedTimeline(), 3)
+                .get(2);
+        assertThat(all.beanName()).isEqualTo("adminController");
+        assertThat(all.total()).isGreaterThan(all.self());
+    }
+
+    private StartupStep bean(BufferingApplicationStartup startup, String name) {
+        return startup.start(StartupTimingReport.BEAN_INSTANTIATE).tag("beanName", name);
+    }
+}
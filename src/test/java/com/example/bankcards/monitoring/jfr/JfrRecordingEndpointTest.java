@@ -0,0 +1,95 @@
+package com.example.bankcards.monitoring.jfr;
+
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new JfrRecordingEndpoint(directory, "default", Duration.ofMinutes(1), DataSize.ofMegabytes(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.discard();
+    }
+
+    @Test
+    void start_clampsDurationAndSize_toConfiguredBounds() {
+        WebEndpointResponse<JfrRecordingEndpoint.RecordingStatus> response = endpoint.start(3600L, 500L);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getBody().state()).isEqualTo(RecordingState.RUNNING);
+        assertThat(response.getBody().duration()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(response.getBody().maxSize()).isEqualTo(DataSize.ofMegabytes(20).toBytes());
+    }
+
+    @Test
+    void start_returnsConflict_whenRecordingIsRunning() {
+        endpoint.start(null, null);
+
+        assertThat(endpoint.start(null, null).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void statusAndStop_returnNotFound_withoutRecording() {
+        assertThat(endpoint.status().getStatus()).isEqualTo(404);
+        assertThat(endpoint.stop().getStatus()).isEqualTo(404);
+        assertThat(endpoint.download(1L).getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void download_containsDomainEvents_withHashedCardIds() throws Exception {
+        long id = endpoint.start(null, null).getBody().id();
+
+        TransferEvent transfer = TransferEvent.start();
+        transfer.lockWait(1_000);
+        transfer.finish(1L, 2L, new BigDecimal("250.00"), null);
+
+        assertThat(endpoint.stop().getBody().state()).isEqualTo(RecordingState.CLOSED);
+        Resource resource = endpoint.download(id).getBody();
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(resource.getFile().toPath()).stream()
+                .filter(e -> e.getEventType().getName().equals("com.example.bankcards.Transfer"))
+                .toList();
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("fromCard")).hasSize(12).isEqualTo(JfrSupport.hashCardId(1L));
+        assertThat(event.getString("toCard")).isNotEqualTo(event.getString("fromCard"));
+        assertThat(event.getString("amountBucket")).isEqualTo("100-1K");
+        assertThat(event.getDuration("lockWait")).isEqualTo(Duration.ofNanos(1_000));
+        assertThat(event.getString("outcome")).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void download_dumpsSnapshot_whileRecording() {
+        long id = endpoint.start(null, null).getBody().id();
+
+        WebEndpointResponse<Resource> response = endpoint.download(id);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getBody().exists()).isTrue();
+        assertThat(endpoint.status().getBody().state()).isEqualTo(RecordingState.RUNNING);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    private final List<OutboxEvent> published = new CopyOnWriteArrayList<>();
+    private volatile Predicate<OutboxEvent> failOn = event -> false;
+
+    @Override
+    public void publish(OutboxEvent event) {
+        if (failOn.test(event)) {
+            throw new IllegalStateException("Sink rejected event " + event.getId());
+        }
+        published.add(event);
+    }
+
+    public List<OutboxEvent> getPublished() {
+        return published;
+    }
+
+    public void failOn(Predicate<OutboxEvent> failOn) {
+        this.failOn = failOn;
+    }
+}
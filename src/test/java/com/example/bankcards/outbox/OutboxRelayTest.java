@@ -0,0 +1,110 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private InMemoryOutboxEventSink sink;
+
+    @BeforeEach
+    void setUp() {
+        sink = new InMemoryOutboxEventSink();
+    }
+
+    @Test
+    void relayBatch_publishesPendingEventsAndMarksThem() {
+        save(10L, 1L, "STATUS_CHANGED");
+        save(20L, 1L, "BALANCE_CHANGED");
+
+        int locked = relay(10).relayBatch();
+
+        assertThat(locked).isEqualTo(2);
+        assertThat(sink.getPublished()).extracting(OutboxEvent::getAggregateId).containsExactly(10L, 20L);
+        entityManager.clear();
+        assertThat(outboxEventRepository.findAll()).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+        assertThat(relay(10).relayBatch()).isZero();
+    }
+
+    @Test
+    void relayBatch_publishesPerCardInVersionOrder() {
+        save(10L, 3L, "BALANCE_CHANGED");
+        save(10L, 2L, "STATUS_CHANGED");
+
+        relay(10).relayBatch();
+
+        assertThat(sink.getPublished()).extracting(OutboxEvent::getAggregateVersion).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void relayBatch_holdsBackCard_whenOlderEventIsOutsideBatch() {
+        save(10L, 3L, "BALANCE_CHANGED");
+        save(10L, 2L, "STATUS_CHANGED");
+        save(20L, 1L, "BALANCE_CHANGED");
+
+        relay(1).relayBatch();
+
+        assertThat(sink.getPublished()).isEmpty();
+
+        relay(3).relayBatch();
+
+        assertThat(sink.getPublished()).extracting(OutboxEvent::getAggregateVersion).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void relayBatch_keepsFailedCardPending_andPublishesOthers() {
+        save(10L, 1L, "BALANCE_CHANGED");
+        save(10L, 2L, "BALANCE_CHANGED");
+        save(20L, 1L, "BALANCE_CHANGED");
+        sink.failOn(event -> event.getAggregateId().equals(10L) && event.getAggregateVersion() == 1L);
+
+        int locked = relay(10).relayBatch();
+
+        assertThat(locked).isZero();
+        assertThat(sink.getPublished()).extracting(OutboxEvent::getAggregateId).containsExactly(20L);
+
+        sink.failOn(event -> false);
+        entityManager.clear();
+        relay(10).relayBatch();
+
+        assertThat(sink.getPublished()).extracting(OutboxEvent::getAggregateVersion).containsExactly(1L, 1L, 2L);
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        return new OutboxRelay(outboxEventRepository, sink, transactionManager, Clock.systemUTC(),
+                batchSize, 1, Duration.ofDays(7));
+    }
+
+    private void save(Long cardId, Long version, String eventType) {
+        outboxEventRepository.saveAndFlush(OutboxEvent.builder()
+                .aggregateType(OutboxWriter.CARD_AGGREGATE)
+                .aggregateId(cardId)
+                .aggregateVersion(version)
+                .eventType(eventType)
+                .payload("{}")
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.TransferCompletedEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxWriterTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private OutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new OutboxWriter(outboxEventRepository, objectMapper, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void onCardChanged_appendsCardEvent() throws Exception {
+        writer.onCardChanged(new CardChangedEvent(CardChangeType.STATUS_CHANGED, 10L, 1L,
+                CardStatus.BLOCKED, BigDecimal.TEN, 4L));
+
+        OutboxEvent saved = captureSaved();
+        assertThat(saved.getAggregateType()).isEqualTo("CARD");
+        assertThat(saved.getAggregateId()).isEqualTo(10L);
+        assertThat(saved.getAggregateVersion()).isEqualTo(4L);
+        assertThat(saved.getEventType()).isEqualTo("STATUS_CHANGED");
+        assertThat(saved.getCreatedAt()).isEqualTo(NOW);
+        assertThat(saved.getPublishedAt()).isNull();
+        JsonNode payload = objectMapper.readTree(saved.getPayload());
+        assertThat(payload.get("status").asText()).isEqualTo("BLOCKED");
+        assertThat(payload.get("ownerId").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    void onCardChanged_ordersDeletionAfterLastChange() {
+        writer.onCardChanged(new CardChangedEvent(CardChangeType.DELETED, 10L, 1L,
+                CardStatus.NEW, BigDecimal.ZERO, 4L));
+
+        assertThat(captureSaved().getAggregateVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    void onTransferCompleted_appendsEventOnSourceCard() throws Exception {
+        writer.onTransferCompleted(new TransferCompletedEvent(10L, 20L, 1L, new BigDecimal("30.00"),
+                "rent", NOW, 6L));
+
+        OutboxEvent saved = captureSaved();
+        assertThat(saved.getAggregateId()).isEqualTo(10L);
+        assertThat(saved.getAggregateVersion()).isEqualTo(6L);
+        assertThat(saved.getEventType()).isEqualTo(OutboxWriter.TRANSFER_COMPLETED);
+        JsonNode payload = objectMapper.readTree(saved.getPayload());
+        assertThat(payload.get("toCardId").asLong()).isEqualTo(20L);
+        assertThat(payload.get("amount").decimalValue()).isEqualByComparingTo("30.00");
+    }
+
+    private OutboxEvent captureSaved() {
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
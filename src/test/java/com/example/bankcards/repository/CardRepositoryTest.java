@@ -1,5 +1,7 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.card.CardExportRow;
+import com.example.bankcards.dto.card.CardVersionSummary;
 import com.example.bankcards.entity.card.Card;
 import com.example.bankcards.entity.card.CardStatus;
 import com.example.bankcards.entity.user.User;
@@ -9,11 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -50,15 +55,15 @@ public class CardRepositoryTest {
     }
 
     @Test
-    void findByOwner_returnsPageWithCards_whenExists() {
-        Page<Card> page = cardRepository.findByOwner(owner, PageRequest.of(0, 10));
+    void findByOwnerId_returnsPageWithCards_whenExists() {
+        Page<Card> page = cardRepository.findByOwnerId(owner.getId(), PageRequest.of(0, 10));
 
         assertThat(page).isNotEmpty();
         assertThat(page.getContent().get(0).getOwner().getUsername()).isEqualTo("owner");
     }
 
     @Test
-    void findByOwner_returnsEmptyPage_whenNoCards() {
+    void findByOwnerId_returnsEmptyPage_whenNoCards() {
         User another = User.builder()
                 .username("another")
                 .password("password")
@@ -67,21 +72,42 @@ public class CardRepositoryTest {
                 .build();
         userRepository.save(another);
 
-        Page<Card> page = cardRepository.findByOwner(another, PageRequest.of(0, 10));
+        Page<Card> page = cardRepository.findByOwnerId(another.getId(), PageRequest.of(0, 10));
 
         assertThat(page).isEmpty();
     }
 
     @Test
-    void findByIdAndOwner_returnsCard_whenExists() {
-        Optional<Card> found = cardRepository.findByIdAndOwner(card.getId(), owner);
+    void findSliceByOwnerId_detectsNextSlice_withoutTotals() {
+        Card second = Card.builder()
+                .encryptedNumber("encrypted-8765432187654321")
+                .owner(owner)
+                .expiryDate(LocalDate.of(2028, 10, 20))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .build();
+        cardRepository.save(second);
+
+        Slice<Card> first = cardRepository.findSliceByOwnerId(owner.getId(), PageRequest.of(0, 1));
+        Slice<Card> last = cardRepository.findSliceByOwnerId(owner.getId(), PageRequest.of(1, 1));
+
+        assertThat(first).isNotInstanceOf(Page.class);
+        assertThat(first.getContent()).hasSize(1);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void findByIdAndOwnerId_returnsCard_whenExists() {
+        Optional<Card> found = cardRepository.findByIdAndOwnerId(card.getId(), owner.getId());
 
         assertThat(found).isPresent();
         assertThat(found.get().getEncryptedNumber()).isEqualTo("encrypted-1234567812345678");
     }
 
     @Test
-    void findByIdAndOwner_returnsEmpty_whenNotExists() {
+    void findByIdAndOwnerId_returnsEmpty_whenNotExists() {
         User another = User.builder()
                 .username("another")
                 .password("password")
@@ -90,9 +116,72 @@ public class CardRepositoryTest {
                 .build();
         userRepository.save(another);
 
-        Optional<Card> found = cardRepository.findByIdAndOwner(card.getId(), another);
+        Optional<Card> found = cardRepository.findByIdAndOwnerId(card.getId(), another.getId());
 
         assertThat(found).isEmpty();
     }
-}
 
+    @Test
+    void findVersionByIdAndOwnerId_returnsVersion_onlyForOwner() {
+        User another = User.builder()
+                .username("another")
+                .password("password")
+                .enabled(true)
+                .createdAt(Instant.now())
+                .build();
+        userRepository.save(another);
+
+        assertThat(cardRepository.findVersionByIdAndOwnerId(card.getId(), owner.getId())).contains(card.getVersion());
+        assertThat(cardRepository.findVersionByIdAndOwnerId(card.getId(), another.getId())).isEmpty();
+    }
+
+    @Test
+    void summarizeVersionsByOwnerId_aggregatesOwnerCards() {
+        Card second = Card.builder()
+                .encryptedNumber("encrypted-8765432187654321")
+                .owner(owner)
+                .expiryDate(LocalDate.of(2029, 1, 1))
+                .status(CardStatus.NEW)
+                .balance(BigDecimal.ZERO)
+                .build();
+        cardRepository.saveAndFlush(second);
+
+        CardVersionSummary summary = cardRepository.summarizeVersionsByOwnerId(owner.getId());
+
+        assertThat(summary.getCount()).isEqualTo(2L);
+        assertThat(summary.getVersionSum()).isEqualTo(card.getVersion() + second.getVersion());
+        assertThat(summary.getIdSum()).isEqualTo(card.getId() + second.getId());
+        assertThat(summary.getLastUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void summarizeVersionsByOwnerId_returnsZeroes_whenNoCards() {
+        User another = User.builder()
+                .username("another")
+                .password("password")
+                .enabled(true)
+                .createdAt(Instant.now())
+                .build();
+        userRepository.save(another);
+
+        CardVersionSummary summary = cardRepository.summarizeVersionsByOwnerId(another.getId());
+
+        assertThat(summary.getCount()).isZero();
+        assertThat(summary.getVersionSum()).isZero();
+        assertThat(summary.getLastUpdatedAt()).isNull();
+    }
+
+    @Test
+    void streamAllForExport_returnsRowsWithOwnerUsername() {
+        List<CardExportRow> rows;
+        try (Stream<CardExportRow> stream = cardRepository.streamAllForExport()) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getId()).isEqualTo(card.getId());
+        assertThat(rows.get(0).getOwnerUsername()).isEqualTo("owner");
+        assertThat(rows.get(0).getEncryptedNumber()).isEqualTo("encrypted-1234567812345678");
+        assertThat(rows.get(0).getStatus()).isEqualTo(CardStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void save_allocatesIdsFromSequence() {
+        OutboxEvent first = save(10L, 1L, null);
+        OutboxEvent second = save(10L, 2L, null);
+
+        assertThat(first.getId()).isNotNull();
+        assertThat(second.getId()).isEqualTo(first.getId() + 1);
+    }
+
+    @Test
+    void lockPendingBatch_returnsOldestUnpublished() {
+        OutboxEvent published = save(10L, 1L, Instant.now());
+        OutboxEvent first = save(10L, 2L, null);
+        OutboxEvent second = save(20L, 1L, null);
+        save(30L, 1L, null);
+
+        List<OutboxEvent> batch = outboxEventRepository.lockPendingBatch(PageRequest.of(0, 2));
+
+        assertThat(batch).extracting(OutboxEvent::getId)
+                .containsExactly(first.getId(), second.getId())
+                .doesNotContain(published.getId());
+    }
+
+    @Test
+    void findPendingForAggregatesExcluding_skipsBatchAndPublished() {
+        OutboxEvent inBatch = save(10L, 2L, null);
+        OutboxEvent outside = save(10L, 1L, null);
+        save(10L, 0L, Instant.now());
+        save(20L, 1L, null);
+
+        List<OutboxEvent> pending = outboxEventRepository.findPendingForAggregatesExcluding(
+                List.of(10L), List.of(inBatch.getId()));
+
+        assertThat(pending).extracting(OutboxEvent::getId).containsExactly(outside.getId());
+    }
+
+    @Test
+    void markPublishedAndDeletePublishedBefore_retireEvents() {
+        OutboxEvent event = save(10L, 1L, null);
+        Instant publishedAt = Instant.now().minus(10, ChronoUnit.DAYS);
+
+        assertThat(outboxEventRepository.markPublished(List.of(event.getId()), publishedAt)).isEqualTo(1);
+        entityManager.clear();
+        assertThat(outboxEventRepository.lockPendingBatch(PageRequest.of(0, 10))).isEmpty();
+
+        assertThat(outboxEventRepository.deletePublishedBefore(Instant.now().minus(7, ChronoUnit.DAYS))).isEqualTo(1);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private OutboxEvent save(Long cardId, Long version, Instant publishedAt) {
+        return outboxEventRepository.saveAndFlush(OutboxEvent.builder()
+                .aggregateType("CARD")
+                .aggregateId(cardId)
+                .aggregateVersion(version)
+                .eventType("BALANCE_CHANGED")
+                .payload("{}")
+                .createdAt(Instant.now())
+                .publishedAt(publishedAt)
+                .build());
+    }
+}
@@ -1,21 +1,39 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.user.UserCredentialsRow;
+import com.example.bankcards.dto.user.UserListRow;
+import com.example.bankcards.dto.user.UserRoleRow;
+import com.example.bankcards.entity.card.Card;
+import com.example.bankcards.entity.card.CardStatus;
 import com.example.bankcards.entity.user.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 public class UserRepositoryTest {
 
     @Autowired
     UserRepository userRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    CardRepository cardRepository;
+
     private User user;
 
     @BeforeEach
@@ -52,4 +70,100 @@ public class UserRepositoryTest {
 
         assertThat(exists).isTrue();
     }
+
+    @Test
+    void findCredentialsByUsername_returnsOneRowPerRole() {
+        user.setRoles(Set.of(roleRepository.findByName("ROLE_USER").orElseThrow(),
+                roleRepository.findByName("ROLE_ADMIN").orElseThrow()));
+        userRepository.save(user);
+
+        List<UserCredentialsRow> rows = userRepository.findCredentialsByUsername("user");
+
+        assertThat(rows).hasSize(2)
+                .allSatisfy(row -> {
+                    assertThat(row.getId()).isEqualTo(user.getId());
+                    assertThat(row.getPassword()).isEqualTo("password");
+                });
+        assertThat(rows).extracting(UserCredentialsRow::getRoleId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void findCredentialsByUsername_returnsRowWithoutRole_whenUserHasNoRoles() {
+        userRepository.save(user);
+
+        assertThat(userRepository.findCredentialsByUsername("user"))
+                .singleElement()
+                .extracting(UserCredentialsRow::getRoleId)
+                .isNull();
+    }
+
+    @Test
+    void findKeysetByUsername_returnsNextUsersAfterCursor_withCardCount() {
+        User kate = saveUser("kate", Instant.parse("2024-01-01T00:00:00Z"));
+        saveUser("liam", Instant.parse("2024-01-01T00:00:00Z"));
+        saveUser("mia", Instant.parse("2024-01-01T00:00:00Z"));
+        saveCard(kate);
+        saveCard(kate);
+
+        List<UserListRow> rows = userRepository.findKeysetByUsername("k", true, PageRequest.ofSize(2));
+
+        assertThat(rows).extracting(UserListRow::getUsername).containsExactly("kate", "liam");
+        assertThat(rows).extracting(UserListRow::getCardCount).containsExactly(2L, 0L);
+        assertThat(userRepository.findKeysetByUsername("liam", false, PageRequest.ofSize(2)))
+                .extracting(UserListRow::getUsername, UserListRow::getCardCount)
+                .first()
+                .isEqualTo(tuple("mia", null));
+    }
+
+    @Test
+    void findKeysetByCreatedAt_breaksTiesById() {
+        Instant sameTime = Instant.parse("2100-01-01T00:00:00Z");
+        User first = saveUser("first", sameTime);
+        User second = saveUser("second", sameTime);
+        User third = saveUser("third", sameTime.plusSeconds(1));
+
+        List<UserListRow> rows = userRepository.findKeysetByCreatedAt(sameTime, first.getId(), false, PageRequest.ofSize(10));
+
+        assertThat(rows).extracting(UserListRow::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    void findKeysetById_returnsUsersInIdOrder() {
+        User first = saveUser("first", Instant.now());
+        User second = saveUser("second", Instant.now());
+
+        assertThat(userRepository.findKeysetById(first.getId() - 1, false, PageRequest.ofSize(10)))
+                .extracting(UserListRow::getId)
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void findRoleIdsByUserIdIn_returnsRoleIdPerUser() {
+        Long roleId = roleRepository.findByName("ROLE_USER").orElseThrow().getId();
+        user.setRoles(Set.of(roleRepository.findByName("ROLE_USER").orElseThrow()));
+        userRepository.save(user);
+
+        assertThat(userRepository.findRoleIdsByUserIdIn(List.of(user.getId())))
+                .extracting(UserRoleRow::getUserId, UserRoleRow::getRoleId)
+                .containsExactly(tuple(user.getId(), roleId));
+    }
+
+    private User saveUser(String username, Instant createdAt) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("password")
+                .enabled(true)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private void saveCard(User owner) {
+        cardRepository.save(Card.builder()
+                .encryptedNumber("encrypted-" + owner.getUsername() + "-" + System.nanoTime())
+                .owner(owner)
+                .expiryDate(LocalDate.of(2028, 10, 20))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.bankcards.search;
+
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.exception.UserSearchTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InMemoryUserSearchTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:user-search;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("drop table if exists users");
+        jdbcTemplate.execute("create table users (id bigint primary key, username varchar(100), enabled boolean)");
+        jdbcTemplate.update("insert into users values (1, 'ivanov', true), (2, 'Ivan_Petrov', true), "
+                + "(3, 'sidorov', false), (4, 'ivanova', true), (5, 'smirnov', true)");
+    }
+
+    @Test
+    void search_ranksPrefixMatchesFirst_thenFuzzyMatches() {
+        List<UserSearchHit> hits = search(Duration.ofSeconds(1)).search("ivan", 10);
+
+        assertThat(hits.subList(0, 3)).extracting(UserSearchHit::getUsername)
+                .containsExactlyInAnyOrder("ivanov", "Ivan_Petrov", "ivanova");
+        assertThat(hits).extracting(UserSearchHit::getUsername).doesNotContain("smirnov");
+        assertThat(hits).filteredOn(UserSearchHit::isPrefixMatch).hasSize(3);
+    }
+
+    @Test
+    void search_findsMisspelledUsername() {
+        List<UserSearchHit> hits = search(Duration.ofSeconds(1)).search("ivanv", 10);
+
+        assertThat(hits).extracting(UserSearchHit::getUsername).first().isEqualTo("ivanov");
+        assertThat(hits.get(0).isPrefixMatch()).isFalse();
+        assertThat(hits.get(0).getScore()).isGreaterThan(0.3);
+    }
+
+    @Test
+    void search_returnsTopN() {
+        assertThat(search(Duration.ofSeconds(1)).search("ivan", 2)).hasSize(2);
+    }
+
+    @Test
+    void search_failsFast_whenBudgetIsExceeded() {
+        assertThatThrownBy(() -> search(Duration.ZERO).search("ivan", 10))
+                .isInstanceOf(UserSearchTimeoutException.class);
+    }
+
+    private InMemoryUserSearch search(Duration timeout) {
+        return new InMemoryUserSearch(jdbcTemplate, timeout, 0.3);
+    }
+}
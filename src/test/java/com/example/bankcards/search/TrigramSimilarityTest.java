@@ -0,0 +1,27 @@
+package com.example.bankcards.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class TrigramSimilarityTest {
+
+    @Test
+    void similarity_matchesPgTrgm() {
+        assertThat(TrigramSimilarity.similarity("word", "two words")).isCloseTo(0.363636, within(1e-6));
+        assertThat(TrigramSimilarity.similarity("ivanov", "IVANOV")).isEqualTo(1.0);
+        assertThat(TrigramSimilarity.similarity("ivanov", "smirnov")).isLessThan(0.3);
+    }
+
+    @Test
+    void trigrams_padWordsLikePgTrgm() {
+        assertThat(TrigramSimilarity.trigrams("cat")).containsExactlyInAnyOrder("  c", " ca", "cat", "at ");
+        assertThat(TrigramSimilarity.trigrams("a_b")).containsExactlyInAnyOrder("  a", " a ", "  b", " b ");
+    }
+
+    @Test
+    void escapeLike_escapesWildcards() {
+        assertThat(TrigramUserSearch.escapeLike("a_b%c\\")).isEqualTo("a\\_b\\%c\\\\");
+    }
+}
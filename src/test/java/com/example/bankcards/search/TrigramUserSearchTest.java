@@ -0,0 +1,60 @@
+package com.example.bankcards.search;
+
+import com.example.bankcards.exception.UserSearchTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TrigramUserSearchTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    void search_throwsSearchTimeout_whenPostgresCancelsStatement() {
+        DataAccessException canceled = new SQLErrorCodeSQLExceptionTranslator("PostgreSQL").translate("search", "select",
+                new PSQLException("ERROR: canceling statement due to statement timeout", PSQLState.QUERY_CANCELED));
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenThrow(canceled);
+
+        assertThatThrownBy(() -> search().search("ivan", 10))
+                .isInstanceOf(UserSearchTimeoutException.class);
+    }
+
+    @Test
+    void search_rethrowsOtherDataAccessErrors() {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("broken");
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenThrow(failure);
+
+        assertThatThrownBy(() -> search().search("ivan", 10)).isSameAs(failure);
+    }
+
+    @Test
+    void isStatementTimeout_ignoresOtherSqlStates() {
+        DataAccessException lost = new SQLErrorCodeSQLExceptionTranslator("PostgreSQL").translate("search", "select",
+                new PSQLException("ERROR: connection lost", PSQLState.CONNECTION_FAILURE));
+
+        assertThat(TrigramUserSearch.isStatementTimeout(lost)).isFalse();
+    }
+
+    private TrigramUserSearch search() {
+        return new TrigramUserSearch(jdbcTemplate, Duration.ofMillis(200), 0.3);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtServiceImplTest {
+
+    private static final String SECRET = "and0LXNlcnZpY2UtdGVzdC1qd3Qtc2VydmljZS10ZXN0LWp3dA==";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void generateToken_recordsSignTimer() {
+        JwtServiceImpl jwtService = jwtService(Clock.fixed(now, ZoneOffset.UTC));
+
+        jwtService.generateToken(1L, "user", List.of("ROLE_USER"));
+
+        assertThat(meterRegistry.get("jwt.operations").tag("operation", "sign").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.operations").tag("operation", "parse").timer().count()).isZero();
+    }
+
+    @Test
+    void parseClaims_recordsParseTimer_forValidAndRejectedTokens() {
+        JwtServiceImpl jwtService = jwtService(Clock.fixed(now, ZoneOffset.UTC));
+        String token = jwtService.generateToken(1L, "user", List.of("ROLE_USER"));
+
+        assertThat(jwtService.parseClaims(token)).isPresent();
+        assertThat(jwtService.parseClaims(token + "x")).isEmpty();
+
+        assertThat(meterRegistry.get("jwt.operations").tag("operation", "parse").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void parseClaims_recordsParseTimer_forExpiredToken() {
+        String token = jwtService(Clock.fixed(now, ZoneOffset.UTC)).generateToken(1L, "user", List.of());
+        JwtServiceImpl later = jwtService(Clock.fixed(now.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        assertThat(later.parseClaims(token)).isEmpty();
+
+        assertThat(meterRegistry.get("jwt.operations").tag("operation", "parse").timer().count()).isEqualTo(1);
+    }
+
+    private JwtServiceImpl jwtService(Clock clock) {
+        return new JwtServiceImpl(SECRET, 3_600_000, clock, meterRegistry);
+    }
+}
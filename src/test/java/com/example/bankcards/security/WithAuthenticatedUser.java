@@ -0,0 +1,20 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.test.context.support.WithSecurityContext;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@WithSecurityContext(factory = WithAuthenticatedUserSecurityContextFactory.class)
+public @interface WithAuthenticatedUser {
+
+    long id() default 1L;
+
+    String username() default "user";
+
+    String[] roles() default {"USER"};
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class WithAuthenticatedUserSecurityContextFactory implements WithSecurityContextFactory<WithAuthenticatedUser> {
+
+    @Override
+    public SecurityContext createSecurityContext(WithAuthenticatedUser annotation) {
+        List<SimpleGrantedAuthority> authorities = Arrays.stream(annotation.roles())
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        AuthenticatedUser principal = new AuthenticatedUser(
+                annotation.id(), annotation.username(), "password", authorities);
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return context;
+    }
+}
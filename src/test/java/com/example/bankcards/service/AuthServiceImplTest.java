@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.RoleRegistry;
 import com.example.bankcards.dto.user.AuthRequest;
 import com.example.bankcards.dto.user.AuthResponse;
 import com.example.bankcards.dto.user.RegisterRequest;
@@ -7,8 +8,8 @@ import com.example.bankcards.entity.role.Role;
 import com.example.bankcards.exception.AuthenticationFailedException;
 import com.example.bankcards.exception.RoleNotFoundException;
 import com.example.bankcards.exception.UsernameAlreadyExistsException;
-import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.security.JwtService;
 import com.example.bankcards.service.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,7 +27,6 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,7 +48,7 @@ public class AuthServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -67,12 +67,14 @@ public class AuthServiceImplTest {
 
     @Test
     void authenticate_returnsAuthResponse_whenCredentialsValid() {
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "user", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
         Authentication authentication = new UsernamePasswordAuthenticationToken(
-                "user", "password", List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                principal, "password", principal.getAuthorities()
         );
 
         when(authenticationManager.authenticate(any(Authentication.class))).thenReturn(authentication);
-        when(jwtService.generateToken("user", List.of("ROLE_USER"))).thenReturn("jwt-token");
+        when(jwtService.generateToken(7L, "user", List.of("ROLE_USER"))).thenReturn("jwt-token");
 
         AuthResponse response = authService.authenticate(authRequest);
 
@@ -107,7 +109,7 @@ public class AuthServiceImplTest {
         when(userRepository.existsByUsername("newuser")).thenReturn(false);
         when(passwordEncoder.encode("newpassword")).thenReturn("ENCODED");
         Role role = new Role(1L, "ROLE_USER");
-        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(role));
+        when(roleRegistry.getByName("ROLE_USER")).thenReturn(role);
 
         authService.register(registerRequest);
 
@@ -130,7 +132,7 @@ public class AuthServiceImplTest {
     void register_throwsException_whenRoleNotFound() {
         when(userRepository.existsByUsername("newuser")).thenReturn(false);
         when(passwordEncoder.encode("newpassword")).thenReturn("ENCODED");
-        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.empty());
+        when(roleRegistry.getByName("ROLE_USER")).thenThrow(new RoleNotFoundException("ROLE_USER"));
 
         assertThatThrownBy(() -> authService.register(registerRequest))
                 .isInstanceOf(RoleNotFoundException.class);
@@ -0,0 +1,131 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardExportFormat;
+import com.example.bankcards.dto.card.CardExportRow;
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.CardExportServiceImpl;
+import com.example.bankcards.util.CardEncryptionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CardExportServiceImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardEncryptionService encryptionService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CardExportServiceImpl exportService;
+
+    private CardExportRow first;
+    private CardExportRow second;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new CardExportServiceImpl(cardRepository, encryptionService, objectMapper);
+
+        first = new CardExportRow(1L, "enc-1", "alice", LocalDate.of(2028, 10, 20),
+                CardStatus.ACTIVE, new BigDecimal("100.50"));
+        second = new CardExportRow(2L, "enc-2", "bob, \"the builder\"", LocalDate.of(2029, 1, 1),
+                CardStatus.BLOCKED, BigDecimal.ZERO);
+    }
+
+    @Test
+    void exportCards_writesOneJsonObjectPerLine_whenNdjson() throws Exception {
+        when(cardRepository.streamAllForExport()).thenReturn(Stream.of(first, second));
+        mockMasking();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportCards(CardExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode line = objectMapper.readTree(lines[0]);
+        assertThat(line.get("id").asLong()).isEqualTo(1L);
+        assertThat(line.get("cardNumberMasked").asText()).isEqualTo("**** **** **** 1111");
+        assertThat(line.get("ownerUsername").asText()).isEqualTo("alice");
+        assertThat(line.get("expiryDate").asText()).isEqualTo("2028-10-20");
+        assertThat(line.get("status").asText()).isEqualTo("ACTIVE");
+        assertThat(line.get("balance").decimalValue()).isEqualByComparingTo("100.50");
+        assertThat(line.has("encryptedNumber")).isFalse();
+    }
+
+    @Test
+    void exportCards_writesHeaderAndEscapesValues_whenCsv() throws Exception {
+        when(cardRepository.streamAllForExport()).thenReturn(Stream.of(first, second));
+        mockMasking();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportCards(CardExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).containsExactly(
+                "id,cardNumberMasked,ownerUsername,expiryDate,status,balance",
+                "1,**** **** **** 1111,alice,2028-10-20,ACTIVE,100.50",
+                "2,**** **** **** 1111,\"bob, \"\"the builder\"\"\",2029-01-01,BLOCKED,0");
+    }
+
+    @Test
+    void exportCards_neutralizesFormulas_whenCsv() throws Exception {
+        CardExportRow formula = new CardExportRow(3L, "enc-3", "=HYPERLINK(\"http://x\",\"y\")", LocalDate.of(2029, 1, 1),
+                CardStatus.ACTIVE, new BigDecimal("-5.00"));
+        CardExportRow plus = new CardExportRow(4L, "enc-4", "+7@mail", LocalDate.of(2029, 1, 1),
+                CardStatus.ACTIVE, BigDecimal.ONE);
+        CardExportRow at = new CardExportRow(5L, "enc-5", "@SUM(A1)", LocalDate.of(2029, 1, 1),
+                CardStatus.ACTIVE, BigDecimal.ONE);
+        CardExportRow minus = new CardExportRow(6L, "enc-6", "-1", LocalDate.of(2029, 1, 1),
+                CardStatus.ACTIVE, BigDecimal.ONE);
+        when(cardRepository.streamAllForExport()).thenReturn(Stream.of(formula, plus, at, minus));
+        mockMasking();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportCards(CardExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).containsExactly(
+                "id,cardNumberMasked,ownerUsername,expiryDate,status,balance",
+                "3,**** **** **** 1111,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",2029-01-01,ACTIVE,-5.00",
+                "4,**** **** **** 1111,'+7@mail,2029-01-01,ACTIVE,1",
+                "5,**** **** **** 1111,'@SUM(A1),2029-01-01,ACTIVE,1",
+                "6,**** **** **** 1111,'-1,2029-01-01,ACTIVE,1");
+    }
+
+    @Test
+    void exportCards_closesCursor_afterWriting() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(cardRepository.streamAllForExport()).thenReturn(Stream.<CardExportRow>empty().onClose(() -> closed.set(true)));
+
+        long exported = exportService.exportCards(CardExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertThat(exported).isZero();
+        assertThat(closed).isTrue();
+    }
+
+    private void mockMasking() {
+        when(encryptionService.decrypt(anyString())).thenReturn("1111222233331111");
+        when(encryptionService.mask("1111222233331111")).thenReturn("**** **** **** 1111");
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.card.CardBalanceDto;
 import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.dto.card.CardVersionSummary;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.TransferDto;
 import com.example.bankcards.dto.card.TransferRequest;
@@ -8,24 +11,33 @@ import com.example.bankcards.dto.mapper.CardMapper;
 import com.example.bankcards.entity.card.Card;
 import com.example.bankcards.entity.card.CardStatus;
 import com.example.bankcards.entity.user.User;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.TransferCompletedEvent;
+import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.CardOperationException;
 import com.example.bankcards.exception.InsufficientFundsException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.service.impl.CardServiceImpl;
 import com.example.bankcards.util.CardEncryptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -51,6 +63,10 @@ public class CardServiceImplTest {
     @Mock
     private CardMapper cardMapper;
     @Mock
+    private CardBalanceCache balanceCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private Clock clock;
 
     @InjectMocks
@@ -148,6 +164,25 @@ public class CardServiceImplTest {
         verify(cardRepository).save(card);
     }
 
+    @Test
+    void deleteCard_publishesExpiry_beforeDeletingLapsedCard() {
+        card.setStatus(CardStatus.ACTIVE);
+        card.setExpiryDate(LocalDate.of(2024, 12, 31));
+        mockFindCardById(10L, card);
+
+        cardService.deleteCard(10L);
+
+        ArgumentCaptor<CardChangedEvent> events = ArgumentCaptor.forClass(CardChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        CardChangedEvent expired = events.getAllValues().get(0);
+        assertThat(expired.getType()).isEqualTo(CardChangeType.STATUS_CHANGED);
+        assertThat(expired.getStatus()).isEqualTo(CardStatus.EXPIRED);
+        assertThat(events.getAllValues().get(1).getType()).isEqualTo(CardChangeType.DELETED);
+        InOrder inOrder = inOrder(cardRepository, eventPublisher);
+        inOrder.verify(cardRepository).flush();
+        inOrder.verify(eventPublisher).publishEvent(any(CardChangedEvent.class));
+    }
+
     @Test
     void deleteCard_removesCard_whenExists() {
         mockFindCardById(10L, card);
@@ -159,34 +194,47 @@ public class CardServiceImplTest {
 
     @Test
     void listUserCards_returnsPageOfDtos() {
-        UserDetails userDetails = mockUserDetails();
-        mockFindOwner();
+        AuthenticatedUser principal = principal();
 
         Page<Card> page = new PageImpl<>(List.of(card));
-        when(cardRepository.findByOwner(eq(owner), any(Pageable.class))).thenReturn(page);
-        when(cardMapper.toDto(card)).thenReturn(cardDto);
+        when(cardRepository.findByOwnerId(eq(owner.getId()), any(Pageable.class))).thenReturn(page);
+        when(cardMapper.toDto(card, "owner")).thenReturn(cardDto);
+
+        Page<CardDto> result = cardService.listUserCards(principal, PageRequest.of(0, 10));
+
+        assertThat(result.getContent().get(0).getOwnerUsername()).isEqualTo("owner");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void listUserCardsSlice_returnsSliceOfDtos() {
+        AuthenticatedUser principal = principal();
 
-        Page<CardDto> result = cardService.listUserCards(userDetails, PageRequest.of(0, 10));
+        Slice<Card> slice = new SliceImpl<>(List.of(card), PageRequest.of(0, 1), true);
+        when(cardRepository.findSliceByOwnerId(eq(owner.getId()), any(Pageable.class))).thenReturn(slice);
+        when(cardMapper.toDto(card, "owner")).thenReturn(cardDto);
+
+        Slice<CardDto> result = cardService.listUserCardsSlice(principal, PageRequest.of(0, 1));
 
         assertThat(result.getContent().get(0).getOwnerUsername()).isEqualTo("owner");
+        assertThat(result.hasNext()).isTrue();
+        verify(cardRepository, never()).findByOwnerId(any(Long.class), any(Pageable.class));
     }
 
     @Test
     void requestBlockCard_setsStatusToBlockRequest() {
-        UserDetails userDetails = mockUserDetails();
-        mockFindOwner();
+        AuthenticatedUser principal = principal();
         mockFindCardByIdAndOwner(10L, card);
-        when(cardMapper.toDto(card)).thenReturn(cardDto);
+        when(cardMapper.toDto(card, "owner")).thenReturn(cardDto);
 
-        cardService.requestBlockCard(userDetails, 10L);
+        cardService.requestBlockCard(principal, 10L);
 
         assertThat(card.getStatus()).isEqualTo(CardStatus.BLOCK_REQUEST);
     }
 
     @Test
     void transferBetweenCards_movesMoney_whenEnoughBalance() {
-        UserDetails userDetails = mockUserDetails();
-        mockFindOwner();
+        AuthenticatedUser principal = principal();
 
         Card from = Card.builder()
                 .id(1L)
@@ -207,17 +255,130 @@ public class CardServiceImplTest {
 
         TransferRequest request = new TransferRequest(1L, 2L, BigDecimal.valueOf(30), "test", Instant.now());
 
-        TransferDto result = cardService.transferBetweenCards(userDetails, request);
+        TransferDto result = cardService.transferBetweenCards(principal, request);
 
         assertThat(from.getBalance()).isEqualTo(BigDecimal.valueOf(70));
         assertThat(to.getBalance()).isEqualTo(BigDecimal.valueOf(80));
         assertThat(result.getAmount()).isEqualTo(BigDecimal.valueOf(30));
     }
 
+    @Test
+    void transferBetweenCards_publishesBalanceChanges_afterFlush() {
+        AuthenticatedUser principal = principal();
+
+        Card from = Card.builder()
+                .id(1L)
+                .owner(owner)
+                .balance(BigDecimal.valueOf(100))
+                .status(CardStatus.ACTIVE)
+                .expiryDate(LocalDate.of(2028, 10, 20))
+                .version(3L)
+                .build();
+        Card to = Card.builder()
+                .id(2L)
+                .owner(owner)
+                .balance(BigDecimal.valueOf(50))
+                .status(CardStatus.ACTIVE)
+                .expiryDate(LocalDate.of(2028, 10, 20))
+                .version(7L)
+                .build();
+        mockFindCardByIdAndOwner(1L, from);
+        mockFindCardByIdAndOwner(2L, to);
+
+        cardService.transferBetweenCards(principal,
+                new TransferRequest(1L, 2L, BigDecimal.valueOf(30), "test", Instant.now()));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(cardRepository).flush();
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        CardChangedEvent fromChanged = (CardChangedEvent) events.getAllValues().get(0);
+        CardChangedEvent toChanged = (CardChangedEvent) events.getAllValues().get(1);
+        TransferCompletedEvent transfer = (TransferCompletedEvent) events.getAllValues().get(2);
+        assertThat(fromChanged.getType()).isEqualTo(CardChangeType.BALANCE_CHANGED);
+        assertThat(fromChanged.getBalance()).isEqualTo(BigDecimal.valueOf(70));
+        assertThat(toChanged.getCardId()).isEqualTo(2L);
+        assertThat(toChanged.getVersion()).isEqualTo(7L);
+        assertThat(transfer.getFromCardId()).isEqualTo(1L);
+        assertThat(transfer.getToCardId()).isEqualTo(2L);
+        assertThat(transfer.getAmount()).isEqualTo(BigDecimal.valueOf(30));
+        assertThat(transfer.getFromCardVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void getBalance_returnsCachedValue_withoutLoadingCard() {
+        CardBalanceDto cached = new CardBalanceDto(10L, "**** **** **** 1234", BigDecimal.TEN);
+        when(balanceCache.get(10L, owner.getId())).thenReturn(Optional.of(cached));
+
+        CardBalanceDto result = cardService.getBalance(principal(), 10L);
+
+        assertThat(result).isSameAs(cached);
+        verifyNoInteractions(cardRepository, encryptionService);
+    }
+
+    @Test
+    void getBalance_loadsAndCachesCard_whenNotCached() {
+        card.setVersion(5L);
+        card.setBalance(BigDecimal.TEN);
+        when(balanceCache.get(10L, owner.getId())).thenReturn(Optional.empty());
+        mockFindCardByIdAndOwner(10L, card);
+        when(encryptionService.decrypt("encrypted-123")).thenReturn("1111222233334444");
+        when(encryptionService.mask("1111222233334444")).thenReturn("**** **** **** 4444");
+
+        CardBalanceDto result = cardService.getBalance(principal(), 10L);
+
+        assertThat(result.getCardNumberMasked()).isEqualTo("**** **** **** 4444");
+        assertThat(result.getBalance()).isEqualTo(BigDecimal.TEN);
+        verify(balanceCache).put(owner.getId(), 5L, LocalDate.of(2028, 10, 20), result);
+    }
+
+    @Test
+    void getBalanceETag_usesCachedVersion_withoutQuery() {
+        when(balanceCache.getVersion(10L, owner.getId())).thenReturn(Optional.of(4L));
+
+        assertThat(cardService.getBalanceETag(principal(), 10L)).isEqualTo("10-4");
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void getBalanceETag_readsVersionOnly_whenNotCached() {
+        when(balanceCache.getVersion(10L, owner.getId())).thenReturn(Optional.empty());
+        when(cardRepository.findVersionByIdAndOwnerId(10L, owner.getId())).thenReturn(Optional.of(6L));
+
+        assertThat(cardService.getBalanceETag(principal(), 10L)).isEqualTo("10-6");
+        verify(cardRepository, never()).findByIdAndOwnerId(anyLong(), anyLong());
+    }
+
+    @Test
+    void getBalanceETag_throwsNotFound_whenCardNotOwned() {
+        when(balanceCache.getVersion(99L, owner.getId())).thenReturn(Optional.empty());
+        when(cardRepository.findVersionByIdAndOwnerId(99L, owner.getId())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cardService.getBalanceETag(principal(), 99L))
+                .isInstanceOf(CardNotFoundException.class);
+    }
+
+    @Test
+    void getUserCardsETag_changesWithVersionsAndPage() {
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        when(cardRepository.summarizeVersionsByOwnerId(owner.getId()))
+                .thenReturn(new CardVersionSummary(2L, 5L, 3L, updatedAt))
+                .thenReturn(new CardVersionSummary(2L, 5L, 3L, updatedAt))
+                .thenReturn(new CardVersionSummary(2L, 6L, 3L, updatedAt))
+                .thenReturn(new CardVersionSummary(2L, 5L, 3L, updatedAt));
+
+        String first = cardService.getUserCardsETag(principal(), PageRequest.of(0, 10), false);
+        String same = cardService.getUserCardsETag(principal(), PageRequest.of(0, 10), false);
+        String changed = cardService.getUserCardsETag(principal(), PageRequest.of(0, 10), false);
+        String otherPage = cardService.getUserCardsETag(principal(), PageRequest.of(1, 10), false);
+
+        assertThat(same).isEqualTo(first);
+        assertThat(changed).isNotEqualTo(first);
+        assertThat(otherPage).isNotEqualTo(first);
+    }
+
     @Test
     void transferBetweenCards_throwsException_whenInsufficientFunds() {
-        UserDetails userDetails = mockUserDetails();
-        mockFindOwner();
+        AuthenticatedUser principal = principal();
 
         Card from = Card.builder()
                 .id(1L)
@@ -238,19 +399,13 @@ public class CardServiceImplTest {
 
         TransferRequest request = new TransferRequest(1L, 2L, BigDecimal.valueOf(30), "test", Instant.now());
 
-        assertThatThrownBy(() -> cardService.transferBetweenCards(userDetails, request))
+        assertThatThrownBy(() -> cardService.transferBetweenCards(principal, request))
                 .isInstanceOf(InsufficientFundsException.class);
     }
 
-    private UserDetails mockUserDetails() {
-        return new org.springframework.security.core.userdetails.User(
-                owner.getUsername(), owner.getPassword(),
-                List.of(new SimpleGrantedAuthority("ROLE_USER"))
-        );
-    }
-
-    private void mockFindOwner() {
-        when(userRepository.findByUsername(owner.getUsername())).thenReturn(Optional.of(owner));
+    private AuthenticatedUser principal() {
+        return new AuthenticatedUser(owner.getId(), owner.getUsername(), owner.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
     }
 
     private void mockFindOwnerById() {
@@ -262,6 +417,6 @@ public class CardServiceImplTest {
     }
 
     private void mockFindCardByIdAndOwner(Long id, Card c) {
-        when(cardRepository.findByIdAndOwner(id, owner)).thenReturn(Optional.of(c));
+        when(cardRepository.findByIdAndOwnerId(id, owner.getId())).thenReturn(Optional.of(c));
     }
 }
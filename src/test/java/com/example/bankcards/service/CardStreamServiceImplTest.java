@@ -0,0 +1,180 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.controller.CardController;
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.service.impl.CardStreamServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class CardStreamServiceImplTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:10-(\\d+)");
+
+    private CardStreamServiceImpl streamService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        start(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void onCardChanged_pushesEventToOwnerStream() throws Exception {
+        MvcResult owner = subscribe(1L);
+        MvcResult stranger = subscribe(2L);
+
+        streamService.onCardChanged(event(CardChangeType.BALANCE_CHANGED, 1L, "70.00", 3L));
+
+        String body = awaitBody(owner, content -> content.contains("\"version\":3"));
+        assertThat(body).contains("event:card", "id:10-3", "\"balance\":70.00", "\"type\":\"BALANCE_CHANGED\"");
+        assertThat(owner.getResponse().getHeader("X-Accel-Buffering")).isEqualTo("no");
+        assertThat(stranger.getResponse().getContentAsString()).doesNotContain("event:card");
+    }
+
+    @Test
+    void onCardChanged_skipsCreatedAndDeletedCards() throws Exception {
+        MvcResult owner = subscribe(1L);
+
+        streamService.onCardChanged(event(CardChangeType.CREATED, 1L, "0", 0L));
+        streamService.onCardChanged(event(CardChangeType.DELETED, 1L, "0", 1L));
+        streamService.onCardChanged(event(CardChangeType.STATUS_CHANGED, 1L, "0", 2L));
+
+        String body = awaitBody(owner, content -> content.contains("id:10-2"));
+        assertThat(body).doesNotContain("CREATED", "DELETED");
+    }
+
+    @Test
+    void onCardChanged_coalescesBurstWithoutReordering() throws Exception {
+        MvcResult owner = subscribe(1L);
+
+        for (long version = 1; version <= 500; version++) {
+            streamService.onCardChanged(event(CardChangeType.BALANCE_CHANGED, 1L, String.valueOf(version), version));
+        }
+
+        String body = awaitBody(owner, content -> content.contains("id:10-500"));
+        List<Long> versions = new ArrayList<>();
+        Matcher matcher = EVENT_ID.matcher(body);
+        while (matcher.find()) {
+            versions.add(Long.parseLong(matcher.group(1)));
+        }
+        assertThat(versions).isSorted().doesNotHaveDuplicates().endsWith(500L);
+    }
+
+    @Test
+    void heartbeat_reachesEverySubscriberIndependently() throws Exception {
+        streamService.shutdown();
+        start(Duration.ofMillis(50));
+
+        MvcResult first = subscribe(1L);
+        MvcResult second = subscribe(2L);
+
+        awaitBody(first, content -> content.split(":heartbeat", -1).length > 3);
+        awaitBody(second, content -> content.split(":heartbeat", -1).length > 3);
+    }
+
+    @Test
+    void heartbeat_completesStream_whenPreviousHeartbeatIsNotAcknowledged() throws Exception {
+        streamService.shutdown();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        streamService = new CardStreamServiceImpl(Duration.ofMinutes(1), Duration.ofMillis(50), 64, 2, false,
+                new SimpleMeterRegistry()) {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        try {
+                            stalled.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        super.send(builder);
+                    }
+
+                    @Override
+                    public synchronized void complete() {
+                        completed.countDown();
+                        super.complete();
+                    }
+                };
+            }
+        };
+        try {
+            streamService.subscribe(new AuthenticatedUser(1L, "user1", "password",
+                    List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            stalled.countDown();
+        }
+    }
+
+    private void start(Duration heartbeatInterval) {
+        streamService = new CardStreamServiceImpl(Duration.ofMinutes(1), heartbeatInterval, 64, 2, false,
+                new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new CardController(null, streamService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    private MvcResult subscribe(Long userId) throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId, "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return mockMvc.perform(get("/api/cards/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitBody(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String body = result.getResponse().getContentAsString();
+        while (!condition.test(body) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        assertThat(condition).accepts(body);
+        return body;
+    }
+
+    private CardChangedEvent event(CardChangeType type, Long ownerId, String balance, Long version) {
+        return new CardChangedEvent(type, 10L, ownerId, CardStatus.ACTIVE, new BigDecimal(balance), version);
+    }
+}
@@ -1,25 +1,50 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.RoleRegistry;
+import com.example.bankcards.config.MetricsConfig;
+import com.example.bankcards.dto.card.CardStateRow;
 import com.example.bankcards.dto.mapper.UserMapper;
 import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.dto.user.UserCursor;
 import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.dto.user.UserKeysetPage;
+import com.example.bankcards.dto.user.UserListRow;
+import com.example.bankcards.dto.user.UserRoleRow;
+import com.example.bankcards.dto.user.UserSearchHit;
+import com.example.bankcards.dto.user.UserSortField;
+import com.example.bankcards.exception.InvalidPageRequestException;
+import com.example.bankcards.exception.InvalidSearchQueryException;
 import com.example.bankcards.entity.role.Role;
+import com.example.bankcards.entity.card.CardStatus;
 import com.example.bankcards.entity.user.User;
+import com.example.bankcards.event.CardChangeType;
+import com.example.bankcards.event.CardChangedEvent;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.exception.UsernameAlreadyExistsException;
-import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.search.UserSearch;
 import com.example.bankcards.service.impl.UserServiceImpl;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +52,13 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,11 +69,20 @@ public class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserSearch userSearch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -69,7 +109,7 @@ public class UserServiceImplTest {
 
     @Test
     void findById_returnsUserDto_whenUserExists() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(existingUser));
         when(userMapper.toDto(existingUser)).thenReturn(existingUserDto);
 
         UserDto result = userService.findById(1L);
@@ -79,12 +119,31 @@ public class UserServiceImplTest {
 
     @Test
     void findById_throwsException_whenUserNotFound() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.findById(99L))
                 .isInstanceOf(UserNotFoundException.class);
     }
 
+    @Test
+    void findById_isTimedAsServiceCall_withExceptionTag() {
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findWithRolesById(99L)).thenReturn(Optional.empty());
+        when(userMapper.toDto(existingUser)).thenReturn(existingUserDto);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(userService);
+        proxyFactory.addAspect(new TimedAspect(meterRegistry));
+        UserService timedService = proxyFactory.getProxy();
+
+        timedService.findById(1L);
+        assertThatThrownBy(() -> timedService.findById(99L)).isInstanceOf(UserNotFoundException.class);
+
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tags("method", "findById", "exception", "none").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tags("method", "findById", "exception", "UserNotFoundException").timer().count()).isEqualTo(1);
+    }
+
     @Test
     void updateUser_changesUsernameAndRoles_whenValid() {
         UpdateUserRequest request = UpdateUserRequest.builder()
@@ -92,12 +151,12 @@ public class UserServiceImplTest {
                 .password(null)
                 .roles(Set.of("ROLE_ADMIN"))
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(existingUser));
         when(userRepository.existsByUsername("newuser")).thenReturn(false);
 
         Role adminRole = new Role(1L, "ROLE_ADMIN");
-        when(roleRepository.findAllByNameIn(Set.of("ROLE_ADMIN")))
-                .thenReturn(List.of(adminRole));
+        when(roleRegistry.getAllByName(Set.of("ROLE_ADMIN")))
+                .thenReturn(Set.of(adminRole));
 
         when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
         when(userMapper.toDto(any(User.class))).thenReturn(
@@ -123,7 +182,7 @@ public class UserServiceImplTest {
                 .password(null)
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(existingUser));
         when(userRepository.existsByUsername("newuser")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
         when(userMapper.toDto(any(User.class))).thenReturn(
@@ -141,7 +200,7 @@ public class UserServiceImplTest {
 
     @Test
     void updateUser_throwsException_whenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.empty());
 
         UpdateUserRequest request = new UpdateUserRequest("user2", "password2", Set.of("ROLE_USER"));
 
@@ -153,7 +212,7 @@ public class UserServiceImplTest {
     void updateUser_throwsException_whenUsernameAlreadyExists() {
         UpdateUserRequest request = new UpdateUserRequest("user2", "password", null);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(existingUser));
         when(userRepository.existsByUsername("user2")).thenReturn(true);
 
         assertThatThrownBy(() -> userService.updateUser(1L, request))
@@ -161,25 +220,44 @@ public class UserServiceImplTest {
     }
 
     @Test
-    void deleteUser_removesUser_whenExists() {
-        User existing = User
-                .builder()
-                .id(1L)
-                .username("user")
-                .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+    void deleteUser_bulkDeletesCardsThenUser_whenExists() {
+        when(cardRepository.deleteAllByOwnerId(1L)).thenReturn(2);
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
 
         userService.deleteUser(1L);
 
-        verify(userRepository).delete(existing);
+        InOrder inOrder = inOrder(cardRepository, userRepository);
+        inOrder.verify(cardRepository).deleteAllByOwnerId(1L);
+        inOrder.verify(userRepository).deleteUserById(1L);
+        verify(userRepository, never()).findWithRolesById(1L);
+    }
+
+    @Test
+    void deleteUser_publishesDeletedEventPerCard() {
+        when(cardRepository.findStatesByOwnerId(1L)).thenReturn(List.of(
+                new CardStateRow(10L, 1L, CardStatus.ACTIVE, BigDecimal.TEN, 3L),
+                new CardStateRow(11L, 1L, CardStatus.NEW, BigDecimal.ZERO, 0L)));
+        when(cardRepository.deleteAllByOwnerId(1L)).thenReturn(2);
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
+
+        userService.deleteUser(1L);
+
+        ArgumentCaptor<CardChangedEvent> events = ArgumentCaptor.forClass(CardChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .extracting(CardChangedEvent::getType, CardChangedEvent::getCardId, CardChangedEvent::getVersion)
+                .containsExactly(
+                        tuple(CardChangeType.DELETED, 10L, 3L),
+                        tuple(CardChangeType.DELETED, 11L, 0L));
     }
 
     @Test
     void deleteUser_throwsException_whenNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(1L)).thenReturn(0);
 
         assertThatThrownBy(() -> userService.deleteUser(1L))
                 .isInstanceOf(UserNotFoundException.class);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -201,4 +279,97 @@ public class UserServiceImplTest {
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getUsername()).isEqualTo("user");
     }
+
+    @Test
+    void listUsersSlice_returnsSliceWithoutCount() {
+        User user = User.builder()
+                .id(1L)
+                .username("user")
+                .build();
+        UserDto dto = UserDto.builder()
+                .id(1L)
+                .username("user").build();
+
+        Slice<User> slice = new SliceImpl<>(List.of(user), PageRequest.of(0, 10), false);
+        when(userRepository.findSliceBy(any(Pageable.class))).thenReturn(slice);
+        when(userMapper.toDto(user)).thenReturn(dto);
+
+        Slice<UserDto> result = userService.listUsersSlice(0, 10, "id");
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void listUsers_rejectsSortFieldOutsideWhitelist() {
+        assertThatThrownBy(() -> userService.listUsers(0, 10, "password"))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessageContaining("allowed: id, username, createdAt");
+    }
+
+    @Test
+    void listUsersKeyset_returnsCursorForNextPage_andRolesFromRegistry() {
+        Instant createdAt = Instant.parse("2024-05-01T10:00:00Z");
+        UserListRow first = new UserListRow(1L, "anna", true, createdAt, 3L);
+        UserListRow second = new UserListRow(2L, "bob", true, createdAt, 0L);
+        UserListRow extra = new UserListRow(3L, "carl", true, createdAt, 1L);
+        Role adminRole = new Role(1L, "ROLE_ADMIN");
+        when(userRepository.findKeysetByCreatedAt(eq(Instant.EPOCH), eq(0L), eq(true), eq(PageRequest.ofSize(3))))
+                .thenReturn(List.of(first, second, extra));
+        when(userRepository.findRoleIdsByUserIdIn(List.of(1L, 2L))).thenReturn(List.of(new UserRoleRow(1L, 1L)));
+        when(roleRegistry.getAllById(Set.of(1L))).thenReturn(Set.of(adminRole));
+        when(userMapper.toDto(any(UserListRow.class), any())).thenAnswer(inv -> {
+            UserListRow row = inv.getArgument(0);
+            return UserDto.builder().id(row.getId()).username(row.getUsername())
+                    .cardCount(row.getCardCount()).roles(inv.getArgument(1)).build();
+        });
+
+        UserKeysetPage page = userService.listUsersKeyset(2, "createdAt", null, true);
+
+        assertThat(page.isLast()).isFalse();
+        assertThat(page.getContent()).extracting(UserDto::getUsername).containsExactly("anna", "bob");
+        assertThat(page.getContent().get(0).getRoles()).containsExactly("ROLE_ADMIN");
+        assertThat(page.getContent().get(1).getRoles()).isEmpty();
+        assertThat(UserCursor.decode(page.getNextCursor(), UserSortField.CREATED_AT))
+                .isEqualTo(new UserCursor(UserSortField.CREATED_AT, 2L, createdAt.toString()));
+    }
+
+    @Test
+    void listUsersKeyset_continuesFromCursor_andMarksLastPage() {
+        String cursor = new UserCursor(UserSortField.USERNAME, 2L, "bob").encode();
+        when(userRepository.findKeysetByUsername(eq("bob"), anyBoolean(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        UserKeysetPage page = userService.listUsersKeyset(20, "username", cursor, false);
+
+        assertThat(page.isLast()).isTrue();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getContent()).isEmpty();
+    }
+
+    @Test
+    void listUsersKeyset_rejectsCursorIssuedForAnotherSort() {
+        String cursor = new UserCursor(UserSortField.ID, 2L, "").encode();
+
+        assertThatThrownBy(() -> userService.listUsersKeyset(20, "username", cursor, false))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> userService.listUsersKeyset(20, "username", "not-a-cursor", false))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    @Test
+    void searchUsers_trimsQuery_andDelegatesToSearch() {
+        List<UserSearchHit> hits = List.of(new UserSearchHit(1L, "ivanov", true, true, 1.0));
+        when(userSearch.search("ivan", 10)).thenReturn(hits);
+
+        assertThat(userService.searchUsers("  ivan ", 10)).isEqualTo(hits);
+    }
+
+    @Test
+    void searchUsers_rejectsTooShortQueryAndOversizedLimit() {
+        assertThatThrownBy(() -> userService.searchUsers("i", 10))
+                .isInstanceOf(InvalidSearchQueryException.class);
+        assertThatThrownBy(() -> userService.searchUsers("ivan", 500))
+                .isInstanceOf(InvalidSearchQueryException.class);
+    }
 }
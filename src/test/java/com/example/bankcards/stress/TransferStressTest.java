@@ -0,0 +1,189 @@
+package com.example.bankcards.stress;
+
+import com.example.bankcards.dto.card.TransferRequest;
+import com.example.bankcards.entity.card.Card;
+import com.example.bankcards.entity.card.CardStatus;
+import com.example.bankcards.entity.outbox.OutboxEvent;
+import com.example.bankcards.entity.user.User;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.outbox.OutboxWriter;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.service.CardService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("stress")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.liquibase.parameters.admin.password.bcrypt={noop}disabled",
+        "spring.jpa.show-sql=false",
+        "jwt.secret.base64=c3RyZXNzLXRlc3Qtc3RyZXNzLXRlc3Qtc3RyZXNzLXRlc3Q=",
+        "card.encryption.key.base64=MDEyMzQ1Njc4OWFiY2RlZg==",
+        "outbox.relay.enabled=false",
+        "logging.level.com.example=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.org.hibernate.orm.jdbc.batch=OFF"
+})
+public class TransferStressTest {
+
+    private static final int HOT_CARDS = Integer.getInteger("stress.cards", 4);
+    private static final int TRANSFERS = Integer.getInteger("stress.transfers", 2000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 8);
+    private static final int MAX_ATTEMPTS = Integer.getInteger("stress.max-attempts", 5);
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private AuthenticatedUser principal;
+    private List<Long> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.findByUsername("stress-user").ifPresent(userRepository::delete);
+
+        User owner = new User();
+        owner.setUsername("stress-user");
+        owner.setPassword("{noop}stress");
+        owner = userRepository.save(owner);
+
+        cardIds = new ArrayList<>();
+        for (int i = 0; i < HOT_CARDS; i++) {
+            Card card = new Card();
+            card.setEncryptedNumber("stress-" + i);
+            card.setOwner(owner);
+            card.setExpiryDate(LocalDate.now().plusYears(3));
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(INITIAL_BALANCE);
+            cardIds.add(cardRepository.save(card).getId());
+        }
+        principal = new AuthenticatedUser(owner.getId(), owner.getUsername(), "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void concurrentTransfers_conserveMoney_andNeverOverdraw() throws Exception {
+        Map<Long, BigDecimal> expected = new ConcurrentHashMap<>();
+        cardIds.forEach(id -> expected.put(id, INITIAL_BALANCE));
+        LongAdder succeeded = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder retries = new LongAdder();
+        LongAdder aborted = new LongAdder();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                TransferRequest request = randomTransfer();
+                for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                    try {
+                        cardService.transferBetweenCards(principal, request);
+                        expected.merge(request.getFromCardId(), request.getAmount().negate(), BigDecimal::add);
+                        expected.merge(request.getToCardId(), request.getAmount(), BigDecimal::add);
+                        succeeded.increment();
+                        return null;
+                    } catch (InsufficientFundsException ex) {
+                        rejected.increment();
+                        return null;
+                    } catch (ConcurrencyFailureException ex) {
+                        if (attempt == MAX_ATTEMPTS) {
+                            aborted.increment();
+                        } else {
+                            retries.increment();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        Map<Long, BigDecimal> actual = cardRepository.findAllById(cardIds).stream()
+                .collect(Collectors.toMap(Card::getId, Card::getBalance));
+        BigDecimal total = actual.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        long attempts = succeeded.sum() + rejected.sum() + retries.sum() + aborted.sum();
+        log.warn("Transfer stress: {} transfers on {} cards with {} threads in {}s, {} succeeded ({}/s), "
+                        + "{} rejected, retry rate {}%, abort rate {}%",
+                TRANSFERS, HOT_CARDS, THREADS, String.format("%.2f", seconds), succeeded.sum(),
+                Math.round(succeeded.sum() / seconds), rejected.sum(),
+                String.format("%.2f", 100.0 * retries.sum() / attempts),
+                String.format("%.2f", 100.0 * aborted.sum() / TRANSFERS));
+
+        assertThat(succeeded.sum() + rejected.sum() + aborted.sum()).isEqualTo(TRANSFERS);
+        assertThat(total).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(HOT_CARDS)));
+        assertThat(actual.values()).allSatisfy(balance -> assertThat(balance).isNotNegative());
+        assertThat(actual).allSatisfy((id, balance) -> assertThat(balance).isEqualByComparingTo(expected.get(id)));
+        assertThat(transferEvents()).isEqualTo(succeeded.sum());
+    }
+
+    private long transferEvents() {
+        return outboxEventRepository.findAll().stream()
+                .map(OutboxEvent::getEventType)
+                .filter(OutboxWriter.TRANSFER_COMPLETED::equals)
+                .count();
+    }
+
+    private TransferRequest randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(HOT_CARDS);
+        int to = (from + 1 + random.nextInt(HOT_CARDS - 1)) % HOT_CARDS;
+        TransferRequest request = new TransferRequest();
+        request.setFromCardId(cardIds.get(from));
+        request.setToCardId(cardIds.get(to));
+        request.setAmount(BigDecimal.valueOf(random.nextInt(1, 5_000), 2));
+        request.setDescription("stress");
+        return request;
+    }
+}
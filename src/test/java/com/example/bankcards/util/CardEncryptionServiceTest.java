@@ -0,0 +1,37 @@
+package com.example.bankcards.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CardEncryptionServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CardEncryptionService encryptionService = new CardEncryptionService(
+            new SecretKeySpec("0123456789abcdef".getBytes(StandardCharsets.UTF_8), "AES"), meterRegistry);
+
+    @Test
+    void encryptAndDecrypt_recordOperationTimers() {
+        String encrypted = encryptionService.encrypt("4000123412341234");
+
+        assertThat(encryptionService.decrypt(encrypted)).isEqualTo("4000123412341234");
+        assertThat(meterRegistry.get("card.crypto.operations").tag("operation", "encrypt").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("card.crypto.operations").tag("operation", "decrypt").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void decrypt_recordsTimer_whenCiphertextIsCorrupted() {
+        assertThatThrownBy(() -> encryptionService.decrypt("bm90LWEtY2lwaGVydGV4dA=="))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("card.crypto.operations").tag("operation", "decrypt").timer().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogRateLimiterTest {
+
+    @Test
+    void tryAcquire_allowsOneEventPerInterval_andCountsTheRest() {
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofHours(1));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(limiter.takeSuppressed()).isEqualTo(2);
+        assertThat(limiter.takeSuppressed()).isZero();
+    }
+
+    @Test
+    void tryAcquire_allowsEveryEvent_whenIntervalIsZero() {
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ZERO);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.takeSuppressed()).isZero();
+    }
+
+    @Test
+    void warn_reportsSuppressedCount_withNextLoggedEvent() throws InterruptedException {
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofMillis(200));
+        Logger log = mock(Logger.class);
+        when(log.isWarnEnabled()).thenReturn(true);
+
+        limiter.warn(log, "CardId={} not found", 1L);
+        limiter.warn(log, "CardId={} not found", 2L);
+        limiter.warn(log, "CardId={} not found", 3L);
+        Thread.sleep(250);
+        limiter.warn(log, "CardId={} not found", 4L);
+
+        verify(log).warn("CardId={} not found", new Object[]{1L});
+        verify(log).warn("CardId={} not found (suppressed {} similar)", new Object[]{4L, 2L});
+    }
+
+    @Test
+    void debug_skipsLimiter_whenLevelDisabled() {
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofHours(1));
+        Logger log = mock(Logger.class);
+
+        limiter.debug(log, "Invalid token={}", "x");
+
+        verify(log, never()).debug(anyString(), any(Object[].class));
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+}
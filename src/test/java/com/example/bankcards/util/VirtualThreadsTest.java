@@ -0,0 +1,40 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadsTest {
+
+    @Test
+    void factory_failsFast_beforeJava21() {
+        assumeFalse(Runtime.version().feature() >= 21);
+
+        assertThat(VirtualThreads.isSupported()).isFalse();
+        assertThatThrownBy(() -> VirtualThreads.factory("http-"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21+");
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_runsTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21);
+
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("task-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertThat(VirtualThreads.isSupported()).isTrue();
+            assertThat(thread.getName()).startsWith("task-");
+            assertThat(thread.getClass().getSimpleName()).isEqualTo("VirtualThread");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}